@@ -1,16 +1,22 @@
 package ru.dosport;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.dosport.security.UpgradablePasswordEncoder;
 
+@EnableScheduling
 @SpringBootApplication
 public class DosportApplication {
 
+	// Сложность хэширования BCrypt: количество раундов равно 2 в этой степени.
+	// Хэши с другой сложностью пересчитываются при входе пользователя
 	@Bean
-	public BCryptPasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public PasswordEncoder passwordEncoder(@Value("${password.bcrypt.strength:10}") int strength) {
+		return new UpgradablePasswordEncoder(strength);
 	}
 
 	public static void main(String[] args) {
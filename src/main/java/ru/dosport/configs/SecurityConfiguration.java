@@ -22,6 +22,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
     // Адреса доступа
     private static final String LOGIN_ENDPOINT = "/api/v1/auth/login";
+    private static final String REFRESH_ENDPOINT = "/api/v1/auth/refresh";
     private static final String MAIN_ENDPOINT = "/api/v1";
     private static final String SWAGGER_ENDPOINT = "/**";
 
@@ -47,6 +48,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
                 .and()
                 .authorizeRequests()
                 .antMatchers(LOGIN_ENDPOINT).permitAll()
+                .antMatchers(REFRESH_ENDPOINT).permitAll()
                 .antMatchers(MAIN_ENDPOINT).permitAll()
                 .antMatchers(SWAGGER_ENDPOINT).permitAll()
                 .anyRequest().authenticated()
@@ -6,27 +6,34 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import ru.dosport.dto.AuthenticationRequest;
+import ru.dosport.dto.RefreshRequest;
+import ru.dosport.dto.TokenResponse;
+import ru.dosport.security.JwtClaimsCache;
 import ru.dosport.security.JwtUser;
-import ru.dosport.security.JwtTokenProvider;
+import ru.dosport.security.LoginRateLimiter;
+import ru.dosport.security.PasswordHashingExecutor;
+import ru.dosport.services.api.RefreshTokenService;
 import ru.dosport.services.api.UserService;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 import static ru.dosport.helpers.Messages.*;
+import static ru.dosport.helpers.Roles.ROLE_ADMIN;
 
 /**
  * Контроллер аутентификации.
@@ -40,31 +47,54 @@ public class AuthenticationController {
 
     // Список необходимых зависимостей
     private final AuthenticationManager authenticationManager;
-    private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
     private final UserService userService;
+    private final JwtClaimsCache claimsCache;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final LoginRateLimiter loginRateLimiter;
 
-    @ApiOperation(value = "Осуществляет авторизацию пользователя и выдачу токена авторизации")
+    @ApiOperation(value = "Осуществляет авторизацию пользователя и выдачу токена доступа и токена обновления")
     @PostMapping("login")
-    public ResponseEntity<Map<String, String>> login(@Valid @RequestBody AuthenticationRequest requestDto) {
-        try {
-            String username = requestDto.getEmail();
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(username, requestDto.getPassword()));
-            JwtUser user = userService.getJwtByUsername(username);
-            if (user == null) {
-                throw new UsernameNotFoundException(String.format(USER_NOT_FOUND_BY_USERNAME, username));
+    public CompletableFuture<ResponseEntity<TokenResponse>> login(
+            @Valid @RequestBody AuthenticationRequest requestDto, HttpServletRequest request) {
+        // Адрес клиента за доверенным прокси подставляет RemoteIpValve, иначе все клиенты имели бы адрес прокси
+        loginRateLimiter.check(requestDto.getEmail(), request.getRemoteAddr());
+        // Проверка пароля выполняется в пуле хэширования, поток сервера освобождается до ее окончания
+        return passwordHashingExecutor.submit(() -> {
+            try {
+                String username = requestDto.getEmail();
+                authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(username, requestDto.getPassword()));
+                JwtUser user = userService.getJwtByUsername(username);
+                if (user == null) {
+                    throw new UsernameNotFoundException(String.format(USER_NOT_FOUND_BY_USERNAME, username));
+                }
+                log.debug(String.format(USER_WAS_FOUND, username));
+                return new ResponseEntity<>(refreshTokenService.issue(user), HttpStatus.OK);
+            } catch (AuthenticationException e) {
+                log.debug(e);
+                throw new BadCredentialsException(BAD_CREDENTIALS);
             }
-            log.debug(String.format(USER_WAS_FOUND, username));
+        });
+    }
+
+    @ApiOperation(value = "Выдает новый токен доступа по токену обновления, заменяя токен обновления новым")
+    @PostMapping("refresh")
+    public ResponseEntity<TokenResponse> refresh(@Valid @RequestBody RefreshRequest requestDto) {
+        return ResponseEntity.ok(refreshTokenService.refresh(requestDto.getRefreshToken()));
+    }
 
-            String token = jwtTokenProvider.createToken(username, user.getId(),
-                    user.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList()));
+    @Secured(value = {ROLE_ADMIN})
+    @ApiOperation(value = "Отображает статистику кэша проверенных токенов авторизации")
+    @GetMapping("cache")
+    public ResponseEntity<Map<String, Long>> readTokenCacheStatistics() {
+        return ResponseEntity.ok(claimsCache.getStatistics());
+    }
 
-            Map<String, String> response = new HashMap<>();
-            response.put("token", token);
-            return new ResponseEntity<>(response, HttpStatus.OK);
-        } catch (AuthenticationException e) {
-            log.debug(e);
-            throw new BadCredentialsException(BAD_CREDENTIALS);
-        }
+    @Secured(value = {ROLE_ADMIN})
+    @ApiOperation(value = "Отображает статистику пула хэширования паролей: очередь, отказы и время хэширования")
+    @GetMapping("hashing")
+    public ResponseEntity<Map<String, Long>> readPasswordHashingStatistics() {
+        return ResponseEntity.ok(passwordHashingExecutor.getStatistics());
     }
 }
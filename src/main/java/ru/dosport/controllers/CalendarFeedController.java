@@ -0,0 +1,51 @@
+package ru.dosport.controllers;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.dosport.entities.CalendarFeed;
+import ru.dosport.services.api.CalendarFeedService;
+
+import java.time.ZoneId;
+
+/**
+ * Контроллер подписки на календарь в формате iCalendar.
+ * Приложения календарей не передают токен авторизации, поэтому пользователя определяет секретный адрес подписки.
+ */
+@Api("Контроллер подписки на календарь")
+@RestController
+@RequiredArgsConstructor
+public class CalendarFeedController {
+
+    // Адрес календаря, token - секретная часть адреса подписки
+    public static final String FEED_PATH = "/api/v1/calendar/feed/{token}.ics";
+
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+
+    // Необходимые сервисы
+    private final CalendarFeedService calendarFeedService;
+
+    @ApiOperation(value = "Выдает календарь пользователя в формате iCalendar, неизмененный календарь - ответом 304")
+    @GetMapping(FEED_PATH)
+    public ResponseEntity<StreamingResponseBody> readCalendarFeed(@PathVariable String token, WebRequest request) {
+        CalendarFeed feed = calendarFeedService.getFeed(token);
+        // Заголовки ETag и Last-Modified устанавливает checkNotModified
+        String etag = "\"" + feed.getUserId() + "-" + feed.getVersion() + "\"";
+        long lastModified = feed.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .cacheControl(CacheControl.noCache())
+                .body(output -> calendarFeedService.writeFeed(feed, output));
+    }
+}
@@ -2,15 +2,22 @@ package ru.dosport.controllers;
 
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.dosport.dto.EventDto;
 import ru.dosport.dto.EventRequest;
+import ru.dosport.dto.EventSearchRequest;
 import ru.dosport.dto.MemberDto;
 import ru.dosport.dto.MemberRequest;
+import ru.dosport.helpers.ExportFormat;
+import ru.dosport.helpers.Pagination;
 import ru.dosport.services.api.EventService;
+import ru.dosport.services.api.ExportService;
 
 import javax.validation.Valid;
 
@@ -33,11 +40,35 @@ public class EventController {
 
     // Необходимые сервисы
     private final EventService eventService;
+    private final ExportService exportService;
 
-    @ApiOperation(value = "Отображает данные всех мероприятий")
+    // Время ожидания окончания выгрузки, мс
+    @Value("${export.request-timeout:3600000}")
+    private long exportTimeout;
+
+    @ApiOperation(value = "Отображает страницу мероприятий по дате, следующая страница - по курсору из заголовка Link")
     @GetMapping
-    public ResponseEntity<List<EventDto>> readAllEvent() {
-        return ResponseEntity.ok(eventService.getAllDto());
+    public ResponseEntity<List<EventDto>> readAllEvent(@RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Integer size) {
+        return Pagination.toResponse(eventService.getAllDto(cursor, size));
+    }
+
+    @ApiOperation(value = "Ищет мероприятия по периоду, времени начала, виду спорта, площадке, городу и организатору")
+    @GetMapping("/search")
+    public ResponseEntity<List<EventDto>> searchEvents(@ModelAttribute EventSearchRequest request,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Integer size) {
+        return Pagination.toResponse(eventService.search(request, cursor, size));
+    }
+
+    @ApiOperation(value = "Выгружает все мероприятия потоком в формате csv или jsonl")
+    @Secured(value = {ROLE_ADMIN})
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEvents(@RequestParam(defaultValue = "jsonl") String format,
+                                                              WebRequest request) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        return exportFormat.toResponse("events", output -> exportService.exportEvents(exportFormat, output),
+                request, exportTimeout);
     }
 
     @ApiOperation(value = "Отображает данные мероприятия по его индексу")
@@ -77,10 +108,18 @@ public class EventController {
     }
 
     @Secured(value = {ROLE_USER, ROLE_ADMIN})
-    @ApiOperation(value = "Добавляет участника в мероприятие")
+    @ApiOperation(value = "Добавляет участника в мероприятие, а если мест нет - в очередь ожидания")
     @PostMapping("/{id}/members")
-    public ResponseEntity<?> addEventMember(@PathVariable Long id, @RequestBody MemberRequest request) {
-        return eventService.createEventMember(id, request) != null ?
-                ResponseEntity.ok().build() : ResponseEntity.badRequest().build();
+    public ResponseEntity<MemberDto> addEventMember(@PathVariable Long id, @RequestBody MemberRequest request) {
+        return ResponseEntity.ok(eventService.createEventMember(id, request));
+    }
+
+    @Secured(value = {ROLE_USER, ROLE_ADMIN})
+    @ApiOperation(value = "Удаляет участника мероприятия, его место занимает первый из очереди ожидания")
+    @DeleteMapping("/{id}/members/{userId}")
+    public ResponseEntity<?> deleteEventMember(@PathVariable Long id, @PathVariable Long userId,
+                                               Authentication authentication) {
+        return eventService.deleteEventMember(id, userId, authentication) ?
+                ResponseEntity.noContent().build() : ResponseEntity.badRequest().build();
     }
 }
@@ -0,0 +1,75 @@
+package ru.dosport.controllers;
+
+import io.swagger.annotations.ApiOperation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import ru.dosport.dto.EventOccurrenceDto;
+import ru.dosport.dto.EventSeriesDto;
+import ru.dosport.dto.EventSeriesRequest;
+import ru.dosport.dto.MemberDto;
+import ru.dosport.dto.MemberRequest;
+import ru.dosport.services.api.EventSeriesService;
+
+import javax.validation.Valid;
+import java.time.LocalDate;
+import java.util.List;
+
+import static ru.dosport.helpers.Roles.ROLE_ADMIN;
+import static ru.dosport.helpers.Roles.ROLE_USER;
+
+/**
+ * Контроллер Повторяющихся мероприятий.
+ */
+@CrossOrigin
+@RestController
+@RequestMapping("/api/v1/events/series")
+@RequiredArgsConstructor
+public class EventSeriesController {
+
+    // Необходимые сервисы
+    private final EventSeriesService eventSeriesService;
+
+    @ApiOperation(value = "Отображает мероприятия повторяющихся серий за период, по умолчанию - на месяц вперед")
+    @GetMapping("/occurrences")
+    public ResponseEntity<List<EventOccurrenceDto>> readOccurrences(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long sportGroundId) {
+        return ResponseEntity.ok(eventSeriesService.getOccurrences(from, to, sportGroundId));
+    }
+
+    @ApiOperation(value = "Отображает данные повторяющегося мероприятия по его индексу")
+    @GetMapping("/{id}")
+    public ResponseEntity<EventSeriesDto> readEventSeries(@PathVariable Long id) {
+        return ResponseEntity.ok(eventSeriesService.getDtoById(id));
+    }
+
+    @Secured(value = {ROLE_USER, ROLE_ADMIN})
+    @ApiOperation(value = "Создает повторяющееся мероприятие: каждые intervalWeeks недель по дням недели daysOfWeek")
+    @PostMapping
+    public ResponseEntity<EventSeriesDto> createEventSeries(@Valid @RequestBody EventSeriesRequest request,
+                                                            Authentication authentication) {
+        return ResponseEntity.ok(eventSeriesService.save(request, authentication));
+    }
+
+    @Secured(value = {ROLE_USER, ROLE_ADMIN})
+    @ApiOperation(value = "Удаляет повторяющееся мероприятие, мероприятия серии с участниками остаются")
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteEventSeries(@PathVariable Long id, Authentication authentication) {
+        return eventSeriesService.deleteById(id, authentication) ?
+                ResponseEntity.noContent().build() : ResponseEntity.badRequest().build();
+    }
+
+    @Secured(value = {ROLE_USER, ROLE_ADMIN})
+    @ApiOperation(value = "Добавляет участника в мероприятие серии на дату, а если мест нет - в очередь ожидания")
+    @PostMapping("/{id}/occurrences/{date}/members")
+    public ResponseEntity<MemberDto> addOccurrenceMember(@PathVariable Long id,
+                                                         @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                         @RequestBody MemberRequest request) {
+        return ResponseEntity.ok(eventSeriesService.createOccurrenceMember(id, date, request));
+    }
+}
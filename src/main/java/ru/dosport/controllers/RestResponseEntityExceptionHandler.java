@@ -18,6 +18,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import ru.dosport.dto.ErrorDto;
 import ru.dosport.exceptions.DataBadRequestException;
 import ru.dosport.exceptions.DataNotFoundException;
+import ru.dosport.exceptions.TooManyRequestsException;
 
 import static ru.dosport.helpers.Messages.*;
 
@@ -91,4 +92,12 @@ public class RestResponseEntityExceptionHandler extends ResponseEntityExceptionH
         log.debug(ex);
         return new ResponseEntity<>(new ErrorDto(400, ex.getMessage()), HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler({ TooManyRequestsException.class })
+    public ResponseEntity<ErrorDto> handleTooManyRequests(TooManyRequestsException ex, WebRequest request) {
+        log.debug(ex);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorDto(429, ex.getMessage()));
+    }
 }
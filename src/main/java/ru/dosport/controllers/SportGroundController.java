@@ -2,14 +2,33 @@ package ru.dosport.controllers;
 
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.dosport.dto.SportGroundDto;
+import ru.dosport.dto.SportGroundImportReport;
 import ru.dosport.dto.SportGroundRequest;
+import ru.dosport.dto.SportGroundSummaryDto;
+import ru.dosport.dto.TimeSlotDto;
+import ru.dosport.helpers.ExportFormat;
+import ru.dosport.helpers.Pagination;
+import ru.dosport.services.api.BookingScheduleService;
+import ru.dosport.services.api.ExportService;
+import ru.dosport.services.api.SportGroundImportService;
 import ru.dosport.services.api.SportGroundService;
 
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
+import static ru.dosport.helpers.Roles.ROLE_ADMIN;
+
 /**
  * Контроллер Спортивных площадок.
  */
@@ -19,12 +38,74 @@ import java.util.List;
 @RequestMapping("/api/v1/sportgrounds")
 public class SportGroundController {
 
+    // Типы содержимого файлов импорта
+    private static final String TEXT_CSV = "text/csv";
+    private static final String GEO_JSON = "application/geo+json";
+
     private final SportGroundService sportGroundService;
+    private final SportGroundImportService importService;
+    private final ExportService exportService;
+    private final BookingScheduleService bookingScheduleService;
+
+    // Время ожидания окончания выгрузки, мс
+    @Value("${export.request-timeout:3600000}")
+    private long exportTimeout;
 
-    @ApiOperation(value = "Отображает данные всех площадок")
+    @ApiOperation(value = "Отображает страницу кратких данных площадок, следующая страница - по курсору из заголовка Link")
     @GetMapping
-    public ResponseEntity<List<SportGroundDto>> readAllSportGrounds(@RequestParam(required = false) String city) {
-        return ResponseEntity.ok(sportGroundService.getAllDto(city));
+    public ResponseEntity<List<SportGroundSummaryDto>> readAllSportGrounds(@RequestParam(required = false) String city,
+                                                                           @RequestParam(required = false) String cursor,
+                                                                           @RequestParam(required = false) Integer size) {
+        return Pagination.toResponse(sportGroundService.getAllSummaryDto(city, cursor, size));
+    }
+
+    @ApiOperation(value = "Отображает площадки в радиусе от точки, отсортированные по расстоянию")
+    @GetMapping("/nearby")
+    public ResponseEntity<List<SportGroundSummaryDto>> readNearbySportGrounds(@RequestParam Double latitude,
+                                                                              @RequestParam Double longitude,
+                                                                              @RequestParam(defaultValue = "5") Double radius,
+                                                                              @RequestParam(required = false) Short sportTypeId,
+                                                                              @RequestParam(defaultValue = "0") Integer page,
+                                                                              @RequestParam(defaultValue = "20") Integer size) {
+        return ResponseEntity.ok(sportGroundService.getAllSummaryDtoNearby(latitude, longitude, radius, sportTypeId,
+                page, size));
+    }
+
+    @ApiOperation(value = "Отображает ближайшие к точке площадки, отсортированные по расстоянию")
+    @GetMapping("/nearest")
+    public ResponseEntity<List<SportGroundSummaryDto>> readNearestSportGrounds(@RequestParam Double latitude,
+                                                                               @RequestParam Double longitude,
+                                                                               @RequestParam(required = false) Short sportTypeId,
+                                                                               @RequestParam(defaultValue = "10") Integer count) {
+        return ResponseEntity.ok(sportGroundService.getAllSummaryDtoNearest(latitude, longitude, sportTypeId, count));
+    }
+
+    @ApiOperation(value = "Отображает площадки в радиусе от точки, свободные в заданное время, отсортированные по расстоянию")
+    @GetMapping("/available")
+    public ResponseEntity<List<SportGroundSummaryDto>> readAvailableSportGrounds(@RequestParam Double latitude,
+                                                                                 @RequestParam Double longitude,
+                                                                                 @RequestParam(defaultValue = "5") Double radius,
+                                                                                 @RequestParam(required = false) Short sportTypeId,
+                                                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime startTime,
+                                                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime endTime,
+                                                                                 @RequestParam(defaultValue = "20") Integer count) {
+        return ResponseEntity.ok(sportGroundService.getAllSummaryDtoAvailable(latitude, longitude, radius, sportTypeId,
+                date, startTime, endTime, count));
+    }
+
+    @ApiOperation(value = "Отображает площадки в видимой области карты, отсортированные по удаленности от точки")
+    @GetMapping("/area")
+    public ResponseEntity<List<SportGroundSummaryDto>> readSportGroundsInArea(@RequestParam Double minLatitude,
+                                                                              @RequestParam Double minLongitude,
+                                                                              @RequestParam Double maxLatitude,
+                                                                              @RequestParam Double maxLongitude,
+                                                                              @RequestParam(required = false) Double latitude,
+                                                                              @RequestParam(required = false) Double longitude,
+                                                                              @RequestParam(defaultValue = "0") Integer page,
+                                                                              @RequestParam(defaultValue = "20") Integer size) {
+        return ResponseEntity.ok(sportGroundService.getAllSummaryDtoInArea(minLatitude, minLongitude,
+                maxLatitude, maxLongitude, latitude, longitude, page, size));
     }
 
     @ApiOperation(value = "Отображает данные площадки по её индексу")
@@ -33,9 +114,48 @@ public class SportGroundController {
         return ResponseEntity.ok(sportGroundService.getDtoById(id));
     }
 
+    @ApiOperation(value = "Отображает свободные интервалы площадки за день, для текущего дня - начиная с текущего времени")
+    @GetMapping("/{id}/slots")
+    public ResponseEntity<List<TimeSlotDto>> readFreeSlots(@PathVariable Long id,
+                                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                           @RequestParam(required = false) Integer minutes) {
+        return ResponseEntity.ok(bookingScheduleService.getFreeSlots(id, date, minutes));
+    }
+
     @ApiOperation(value = "Создаёт площадку")
     @PostMapping
     public ResponseEntity<?> createSportGround(@RequestBody SportGroundRequest groundRequest) {
         return ResponseEntity.ok(sportGroundService.create(groundRequest));
     }
+
+    @ApiOperation(value = "Создаёт список площадок одной транзакцией")
+    @Secured(value = {ROLE_ADMIN})
+    @PostMapping("/batch")
+    public ResponseEntity<List<SportGroundDto>> createSportGrounds(@RequestBody List<SportGroundRequest> groundRequests) {
+        return ResponseEntity.ok(sportGroundService.createAll(groundRequests));
+    }
+
+    @ApiOperation(value = "Выгружает все площадки потоком в формате csv или jsonl")
+    @Secured(value = {ROLE_ADMIN})
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSportGrounds(@RequestParam(defaultValue = "jsonl") String format,
+                                                                    WebRequest request) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        return exportFormat.toResponse("sportgrounds",
+                output -> exportService.exportSportGrounds(exportFormat, output), request, exportTimeout);
+    }
+
+    @ApiOperation(value = "Импортирует площадки из CSV файла в теле запроса: city, address, title, latitude, longitude, sport_types")
+    @Secured(value = {ROLE_ADMIN})
+    @PostMapping(value = "/import", consumes = TEXT_CSV)
+    public ResponseEntity<SportGroundImportReport> importSportGroundsCsv(InputStream body) {
+        return ResponseEntity.ok(importService.importCsv(body));
+    }
+
+    @ApiOperation(value = "Импортирует площадки из GeoJSON FeatureCollection в теле запроса")
+    @Secured(value = {ROLE_ADMIN})
+    @PostMapping(value = "/import", consumes = {GEO_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<SportGroundImportReport> importSportGroundsGeoJson(InputStream body) {
+        return ResponseEntity.ok(importService.importGeoJson(body));
+    }
 }
@@ -2,12 +2,15 @@ package ru.dosport.controllers;
 
 import io.swagger.annotations.ApiOperation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.dosport.dto.SportTypeDto;
+import ru.dosport.helpers.Pagination;
 import ru.dosport.services.api.SportTypeService;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Контроллер Видов спорта.
@@ -18,13 +21,21 @@ import java.util.List;
 @RequestMapping("/api/v1/sporttype")
 public class SportTypeController {
 
+    // Справочник можно хранить на клиенте, после часа - только с проверкой по ETag
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(1, TimeUnit.HOURS).mustRevalidate();
+
     // Необходимые сервисы
     private final SportTypeService typeService;
 
-    @ApiOperation(value = "Отображает данные видов спорта")
+    @ApiOperation(value = "Отображает страницу видов спорта, следующая страница - по курсору из заголовка Link")
     @GetMapping
-    public ResponseEntity<List<SportTypeDto>> readAllSportTypes() {
-        return ResponseEntity.ok(typeService.getAllSportTypeDto());
+    public ResponseEntity<List<SportTypeDto>> readAllSportTypes(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size) {
+        // При совпадении ETag с If-None-Match Spring отвечает 304 без тела
+        String eTag = "\"" + typeService.getVersion() + "\"";
+        ResponseEntity<List<SportTypeDto>> response = Pagination.toResponse(typeService.getAllSportTypeDto(cursor, size));
+        return ResponseEntity.ok().headers(response.getHeaders()).eTag(eTag).cacheControl(CACHE_CONTROL)
+                .body(response.getBody());
     }
 
     @ApiOperation(value = "Отображает данные вида спорта по его индексу")
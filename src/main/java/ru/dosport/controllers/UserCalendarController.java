@@ -0,0 +1,62 @@
+package ru.dosport.controllers;
+
+import io.swagger.annotations.ApiOperation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ru.dosport.dto.CalendarEventDto;
+import ru.dosport.dto.CalendarFeedDto;
+import ru.dosport.services.api.CalendarFeedService;
+import ru.dosport.services.api.UserCalendarService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static ru.dosport.helpers.Roles.ROLE_ADMIN;
+import static ru.dosport.helpers.Roles.ROLE_USER;
+
+/**
+ * Контроллер Календаря пользователя.
+ */
+@ApiOperation("Контроллер календаря Пользователя")
+@CrossOrigin
+@RestController
+@RequestMapping("/api/v1/profile/calendar")
+@RequiredArgsConstructor
+public class UserCalendarController {
+
+    // Необходимые сервисы
+    private final UserCalendarService userCalendarService;
+    private final CalendarFeedService calendarFeedService;
+
+    @ApiOperation(value = "Выводит мероприятия пользователя за период, по умолчанию - на месяц вперед")
+    @Secured(value = {ROLE_ADMIN, ROLE_USER})
+    @GetMapping("")
+    public ResponseEntity<List<CalendarEventDto>> readCalendar(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        return ResponseEntity.ok(userCalendarService.getCalendar(authentication, from, to));
+    }
+
+    @ApiOperation(value = "Создает адрес подписки на календарь в формате iCalendar, прежний адрес перестает действовать")
+    @Secured(value = {ROLE_ADMIN, ROLE_USER})
+    @PostMapping("/feed")
+    public ResponseEntity<CalendarFeedDto> createCalendarFeed(Authentication authentication) {
+        String token = calendarFeedService.createFeed(authentication);
+        return ResponseEntity.ok(new CalendarFeedDto(ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path(CalendarFeedController.FEED_PATH).buildAndExpand(token).toUriString()));
+    }
+
+    @ApiOperation(value = "Удаляет подписку на календарь")
+    @Secured(value = {ROLE_ADMIN, ROLE_USER})
+    @DeleteMapping("/feed")
+    public ResponseEntity<?> deleteCalendarFeed(Authentication authentication) {
+        return calendarFeedService.deleteFeed(authentication) ?
+                ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+}
@@ -10,9 +10,11 @@ import org.springframework.web.bind.annotation.*;
 import ru.dosport.dto.PasswordRequest;
 import ru.dosport.dto.UserDto;
 import ru.dosport.dto.UserRequest;
+import ru.dosport.security.PasswordHashingExecutor;
 import ru.dosport.services.api.UserService;
 
 import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 
 import static ru.dosport.helpers.Roles.ROLE_ADMIN;
 import static ru.dosport.helpers.Roles.ROLE_USER;
@@ -31,6 +33,7 @@ public class UserController {
 
     // Необходимые сервисы
     private final UserService userService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     @Secured(value = {ROLE_USER, ROLE_ADMIN})
     @ApiOperation(value = "Выводит данные пользователя")
@@ -49,15 +52,17 @@ public class UserController {
 
     @ApiOperation(value = "Создает новый профиль пользователя")
     @PostMapping(value = "", produces = DATA_TYPE)
-    public ResponseEntity<UserDto> createUser(@Valid @RequestBody UserRequest userRequest) {
-        return new ResponseEntity<>(userService.save(userRequest), HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<UserDto>> createUser(@Valid @RequestBody UserRequest userRequest) {
+        // Хэширование пароля выполняется в пуле, поток сервера освобождается до его окончания
+        return passwordHashingExecutor.submit(() -> new ResponseEntity<>(userService.save(userRequest), HttpStatus.OK));
     }
 
     @Secured(value = {ROLE_USER, ROLE_ADMIN})
     @ApiOperation(value = "Изменяет пароль пользователя")
     @PatchMapping(value = "/password", produces = DATA_TYPE)
-    public ResponseEntity<Boolean> updateUserPassword(@Valid @RequestBody PasswordRequest passwordRequest,
-                                                      Authentication authentication) {
-        return new ResponseEntity<>(userService.updatePassword(passwordRequest, authentication), HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<Boolean>> updateUserPassword(
+            @Valid @RequestBody PasswordRequest passwordRequest, Authentication authentication) {
+        return passwordHashingExecutor.submit(() ->
+                new ResponseEntity<>(userService.updatePassword(passwordRequest, authentication), HttpStatus.OK));
     }
 }
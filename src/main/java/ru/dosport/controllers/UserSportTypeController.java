@@ -45,10 +45,10 @@ public class UserSportTypeController {
         return new ResponseEntity<>(userSportTypeService.getAllDtoByUserId(authentication), HttpStatus.OK);
     }
 
-    @ApiOperation(value = "Изменяет список навыков пользователся")
+    @ApiOperation(value = "Заменяет список навыков пользователся: навыки не из списка удаляются")
     @Secured(value = {ROLE_USER})
     @PutMapping("")
-    public ResponseEntity<List<UserSportTypeDto>> updateUserSportTypesByUserId(List<UserSportTypeDto> dtoList,
+    public ResponseEntity<List<UserSportTypeDto>> updateUserSportTypesByUserId(@RequestBody List<UserSportTypeDto> dtoList,
                                                                                Authentication authentication) {
         return new ResponseEntity<>(userSportTypeService.updateByUserId(dtoList, authentication), HttpStatus.OK);
     }
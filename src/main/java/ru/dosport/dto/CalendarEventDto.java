@@ -0,0 +1,30 @@
+package ru.dosport.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import ru.dosport.entities.MemberStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Dto представление мероприятия в календаре пользователя
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CalendarEventDto {
+
+    private Long eventId;
+
+    private LocalDate dateEvent;
+
+    private LocalTime startTimeEvent;
+
+    private LocalTime endTimeEvent;
+
+    private Short sportTypeId;
+
+    private Long sportGroundId;
+
+    private MemberStatus memberStatus;
+}
@@ -0,0 +1,15 @@
+package ru.dosport.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Dto представление подписки на календарь пользователя
+ */
+@Data
+@AllArgsConstructor
+public class CalendarFeedDto {
+
+    // Адрес календаря в формате iCalendar для подписки в приложении календаря
+    private String url;
+}
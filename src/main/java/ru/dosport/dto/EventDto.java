@@ -30,5 +30,13 @@ public class EventDto {
 
     private Set<MemberDto> members;
 
+    // Максимальное количество участников, null - не ограничено.
+    // Изменение мероприятия заменяет все его поля, поэтому отсутствие значения снимает ограничение
+    private Integer maxMembers;
+
+    private int membersCount;
+
+    private Long seriesId;
+
     private Long chatId;
 }
@@ -0,0 +1,36 @@
+package ru.dosport.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Dto представление мероприятия повторяющейся серии на дату.
+ * eventId задан, если мероприятие уже сохранено, то есть в нем есть участники
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EventOccurrenceDto {
+
+    private Long seriesId;
+
+    private Long eventId;
+
+    private LocalDate dateEvent;
+
+    private LocalTime startTimeEvent;
+
+    private LocalTime endTimeEvent;
+
+    private Short sportTypeId;
+
+    private Long sportGroundId;
+
+    private Long organizerId;
+
+    private Integer maxMembers;
+
+    private int membersCount;
+}
@@ -4,11 +4,13 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
 import javax.validation.constraints.FutureOrPresent;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
 import static ru.dosport.helpers.Messages.DATA_NOT_BLANK;
+import static ru.dosport.helpers.Messages.INVALID_MAX_MEMBERS;
 
 /**
  * Запрос для регистрации нового Мероприятия
@@ -34,4 +36,7 @@ public class EventRequest {
 
     @NotBlank(message = DATA_NOT_BLANK + "Организатор")
     private String organizerId;
+
+    @Min(value = 1, message = INVALID_MAX_MEMBERS)
+    private Integer maxMembers;
 }
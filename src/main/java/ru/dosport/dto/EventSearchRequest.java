@@ -0,0 +1,36 @@
+package ru.dosport.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Параметры поиска Мероприятий, все параметры необязательные
+ */
+@Data
+public class EventSearchRequest {
+
+    // Период проведения, по умолчанию начиная с текущей даты
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateTo;
+
+    // Интервал времени начала мероприятия в течение дня
+    @DateTimeFormat(iso = DateTimeFormat.ISO.TIME)
+    private LocalTime timeFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.TIME)
+    private LocalTime timeTo;
+
+    private Short sportTypeId;
+
+    private Long sportGroundId;
+
+    private String city;
+
+    private Long organizerId;
+}
@@ -0,0 +1,39 @@
+package ru.dosport.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+/**
+ * Dto представление сущности Повторяющееся мероприятие
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EventSeriesDto {
+
+    private Long seriesId;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private LocalTime startTime;
+
+    private LocalTime endTime;
+
+    private Set<DayOfWeek> daysOfWeek;
+
+    private int intervalWeeks;
+
+    private Short sportTypeId;
+
+    private Long sportGroundId;
+
+    private Long organizerId;
+
+    private Integer maxMembers;
+}
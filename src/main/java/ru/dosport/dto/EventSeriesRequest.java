@@ -0,0 +1,51 @@
+package ru.dosport.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import javax.validation.constraints.FutureOrPresent;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+import static ru.dosport.helpers.Messages.DATA_NOT_BLANK;
+import static ru.dosport.helpers.Messages.INVALID_MAX_MEMBERS;
+
+/**
+ * Запрос для создания Повторяющегося мероприятия
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EventSeriesRequest {
+
+    @FutureOrPresent
+    @NotNull(message = DATA_NOT_BLANK + "Дата начала")
+    private LocalDate startDate;
+
+    // Дата окончания включительно, не задана - бессрочно
+    private LocalDate endDate;
+
+    @NotNull(message = DATA_NOT_BLANK + "Время начала")
+    private LocalTime startTime;
+
+    private LocalTime endTime;
+
+    // Дни недели, не заданы - день недели даты начала
+    private Set<DayOfWeek> daysOfWeek;
+
+    // Повторять каждые intervalWeeks недель, не задано - каждую неделю
+    private Integer intervalWeeks;
+
+    @NotBlank(message = DATA_NOT_BLANK + "Вид спорта")
+    private String sportTypeTitle;
+
+    @NotNull(message = DATA_NOT_BLANK + "Игровая площадка")
+    private Long sportGroundId;
+
+    @Min(value = 1, message = INVALID_MAX_MEMBERS)
+    private Integer maxMembers;
+}
@@ -0,0 +1,19 @@
+package ru.dosport.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Страница данных при постраничном выводе по ключу
+ */
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    private List<T> content;
+
+    // Курсор следующей страницы, null если страница последняя
+    private String nextCursor;
+}
@@ -2,6 +2,7 @@ package ru.dosport.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
+import ru.dosport.entities.MemberStatus;
 
 /**
  * Dto представление сущности Участник меропрятия
@@ -15,4 +16,9 @@ public class MemberDto {
     private UserDto user;
 
     private String statusUser;
+
+    private MemberStatus memberStatus;
+
+    // Позиция в очереди ожидания, если мест в мероприятии нет
+    private Integer waitlistPosition;
 }
@@ -0,0 +1,19 @@
+package ru.dosport.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import javax.validation.constraints.NotBlank;
+
+import static ru.dosport.helpers.Messages.DATA_NOT_BLANK;
+
+/**
+ * Запрос обновления токена доступа
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RefreshRequest {
+
+    @NotBlank(message = DATA_NOT_BLANK + "Токен обновления")
+    private String refreshToken;
+}
@@ -0,0 +1,34 @@
+package ru.dosport.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Результат импорта Спортивных площадок
+ */
+@Data
+public class SportGroundImportReport {
+
+    // Прочитано записей
+    private long read;
+
+    // Создано площадок
+    private long created;
+
+    // Пропущено площадок с уже существующим адресом
+    private long duplicates;
+
+    // Пропущено записей с ошибками
+    private long invalid;
+
+    // Пропущено площадок из пакетов, которые не удалось сохранить, например из-за одновременного импорта
+    private long skipped;
+
+    // Записано пакетов
+    private int batches;
+
+    // Первые ошибки разбора записей
+    private List<String> errors = new ArrayList<>();
+}
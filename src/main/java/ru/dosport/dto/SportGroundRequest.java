@@ -15,6 +15,9 @@ import static ru.dosport.helpers.Messages.DATA_NOT_BLANK;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class SportGroundRequest {
 
+    @NotBlank(message = DATA_NOT_BLANK + "Город")
+    private String city;
+
     @NotBlank(message = DATA_NOT_BLANK + "Адрес")
     private String address;
 
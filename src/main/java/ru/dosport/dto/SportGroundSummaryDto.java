@@ -0,0 +1,35 @@
+package ru.dosport.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Краткое Dto представление сущности Площадка для списков и карты
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SportGroundSummaryDto {
+
+    private Long sportGroundId;
+
+    private String address;
+
+    private String city;
+
+    private String title;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    private List<Short> sportTypeIds;
+
+    private Long eventCount;
+
+    private Long commentCount;
+
+    // Расстояние до точки поиска, км
+    private Double distance;
+}
@@ -0,0 +1,20 @@
+package ru.dosport.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dto представление свободного интервала площадки [начало, завершение)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSlotDto {
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+}
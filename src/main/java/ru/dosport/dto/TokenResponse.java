@@ -0,0 +1,21 @@
+package ru.dosport.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Dto представление выданных токенов авторизации
+ */
+@Data
+@AllArgsConstructor
+public class TokenResponse {
+
+    // Токен доступа
+    private String token;
+
+    // Токен обновления для получения нового токена доступа
+    private String refreshToken;
+
+    // Срок действия токена доступа, с
+    private long expiresIn;
+}
@@ -3,10 +3,9 @@ package ru.dosport.dto;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 
-import javax.validation.constraints.Digits;
-import javax.validation.constraints.Positive;
+import javax.validation.constraints.*;
 
-import static ru.dosport.helpers.Messages.USER_NOT_FOUND_BY_ID;
+import static ru.dosport.helpers.Messages.*;
 
 /**
  * Dto представление сущности Спортивные навыки пользователя
@@ -21,7 +20,12 @@ public class UserSportTypeDto {
 
     private String firstname;
 
+    @NotNull(message = DATA_NOT_BLANK + "Вид спорта")
+    private Short sportTypeId;
+
     private String SportType;
 
+    @Min(value = 0, message = INVALID_SPORT_LEVEL)
+    @Max(value = 5, message = INVALID_SPORT_LEVEL)
     private short level;
 }
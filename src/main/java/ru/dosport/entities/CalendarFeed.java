@@ -0,0 +1,36 @@
+package ru.dosport.entities;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Сущность Подписка на календарь пользователя
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "calendar_feeds")
+public class CalendarFeed {
+
+    // Пользователь - владелец календаря
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Секретная часть адреса подписки
+    @Column(name = "token", nullable = false, unique = true)
+    private String token;
+
+    // Номер изменения календаря, увеличивается запросами UserCalendarRepository
+    @Column(name = "version", insertable = false, updatable = false)
+    private long version;
+
+    // Время последнего изменения календаря
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+}
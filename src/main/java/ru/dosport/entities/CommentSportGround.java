@@ -18,7 +18,8 @@ import java.time.LocalDate;
 public class CommentSportGround {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sportground_comments_id_seq")
+    @SequenceGenerator(name = "sportground_comments_id_seq", sequenceName = "sportground_comments_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
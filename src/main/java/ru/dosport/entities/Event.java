@@ -1,6 +1,7 @@
 package ru.dosport.entities;
 
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.time.LocalDate;
@@ -17,8 +18,25 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "events")
+@NamedEntityGraphs({
+        // Список мероприятий: вид спорта и площадка, участники догружаются пакетами
+        @NamedEntityGraph(name = Event.LIST_GRAPH, attributeNodes = {
+                @NamedAttributeNode("sportType"),
+                @NamedAttributeNode("sportGround")
+        }),
+        // Одно мероприятие вместе с участниками
+        @NamedEntityGraph(name = Event.DETAIL_GRAPH, attributeNodes = {
+                @NamedAttributeNode("sportType"),
+                @NamedAttributeNode("sportGround"),
+                @NamedAttributeNode("members")
+        })
+})
 public class Event {
 
+    public static final String LIST_GRAPH = "Event.list";
+
+    public static final String DETAIL_GRAPH = "Event.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
@@ -37,12 +55,12 @@ public class Event {
     private LocalTime endTime;
 
     // Вид спорта
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sport_type_id", nullable = false)
     private SportType sportType;
 
     // Игровая площадка
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sportground_id", nullable = false)
     private SportGround sportGround;
 
@@ -50,10 +68,23 @@ public class Event {
     @Column(name = "organizer_user_id", nullable = false)
     private Long organizerId;
 
+    // Максимальное количество участников, null - без ограничения
+    @Column(name = "max_members")
+    private Integer maxMembers;
+
+    // Количество принятых участников, изменяется только запросами вступления и выхода
+    @Column(name = "members_count", insertable = false, updatable = false)
+    private int membersCount;
+
     // Список участников мероприятия
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "event")
     private Set<EventMember> members;
 
+    // Повторяющееся мероприятие, к которому относится мероприятие, null - отдельное мероприятие
+    @Column(name = "series_id", updatable = false)
+    private Long seriesId;
+
     // ID чата
     @Column(name = "chat_id")
     private Long chatId;
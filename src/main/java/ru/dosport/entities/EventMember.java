@@ -14,11 +14,12 @@ import javax.persistence.*;
 public class EventMember {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_member_id_seq")
+    @SequenceGenerator(name = "event_member_id_seq", sequenceName = "event_member_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id")
     private Event event;
 
@@ -27,4 +28,13 @@ public class EventMember {
 
     @Column(name = "status")
     private String status;
+
+    // Принят участник или ожидает свободного места
+    @Enumerated(EnumType.STRING)
+    @Column(name = "member_status", nullable = false)
+    private MemberStatus memberStatus;
+
+    // Номер в очереди ожидания мероприятия
+    @Column(name = "queue_number")
+    private Long queueNumber;
 }
@@ -0,0 +1,76 @@
+package ru.dosport.entities;
+
+import lombok.*;
+import ru.dosport.helpers.Recurrence;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Сущность Повторяющееся мероприятие: правило повторения и данные мероприятий серии.
+ * Мероприятие серии на конкретную дату сохраняется в events, только когда в него вступает участник
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "event_series")
+public class EventSeries {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    // Дата первого мероприятия серии
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    // Дата окончания серии включительно, null - бессрочно
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    // Время начала мероприятий
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    // Время завершения мероприятий
+    @Column(name = "end_time")
+    private LocalTime endTime;
+
+    // Повторять каждые intervalWeeks недель
+    @Column(name = "interval_weeks", nullable = false)
+    private short intervalWeeks;
+
+    // Дни недели повторения, битовая маска Recurrence
+    @Column(name = "days_of_week", nullable = false)
+    private short daysOfWeek;
+
+    // Максимальное количество участников мероприятий, null - без ограничения
+    @Column(name = "max_members")
+    private Integer maxMembers;
+
+    // Вид спорта
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sport_type_id", nullable = false)
+    private SportType sportType;
+
+    // Игровая площадка
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sportground_id", nullable = false)
+    private SportGround sportGround;
+
+    // Организатор мероприятий
+    @Column(name = "organizer_user_id", nullable = false)
+    private Long organizerId;
+
+    /**
+     * Правило повторения серии
+     */
+    public Recurrence toRecurrence() {
+        return new Recurrence(startDate, endDate, intervalWeeks, daysOfWeek);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.dosport.entities;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Перечисление Состояние участника мероприятия
+ */
+@Getter
+@RequiredArgsConstructor
+public enum MemberStatus {
+
+    ACCEPTED("Участник"),
+    WAITING("В листе ожидания");
+
+    private final String description;
+}
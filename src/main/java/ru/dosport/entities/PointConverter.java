@@ -0,0 +1,28 @@
+package ru.dosport.entities;
+
+import org.springframework.data.geo.Point;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Преобразование координат в строковое представление типа point PostgreSQL "(x,y)" и обратно.
+ * Запись требует приведения параметра к типу point в самом столбце, см. @ColumnTransformer в SportGround.
+ */
+@Converter
+public class PointConverter implements AttributeConverter<Point, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Point point) {
+        return point == null ? null : "(" + point.getX() + "," + point.getY() + ")";
+    }
+
+    @Override
+    public Point convertToEntityAttribute(String value) {
+        if (value == null) {
+            return null;
+        }
+        String[] coordinates = value.replaceAll("[()\\s]", "").split(",");
+        return new Point(Double.parseDouble(coordinates[0]), Double.parseDouble(coordinates[1]));
+    }
+}
@@ -0,0 +1,44 @@
+package ru.dosport.entities;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Сущность Токен обновления, один на сеанс входа пользователя
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    // Случайный идентификатор сеанса в токене
+    @Column(name = "handle", nullable = false, updatable = false)
+    private String handle;
+
+    // Пользователь
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // SHA-256 хэш секретной части действующего токена
+    @Column(name = "token_hash", nullable = false)
+    private byte[] tokenHash;
+
+    // SHA-256 хэш секретной части замененного токена
+    @Column(name = "previous_token_hash")
+    private byte[] previousTokenHash;
+
+    // Срок действия токена
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
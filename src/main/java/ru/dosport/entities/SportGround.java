@@ -1,6 +1,7 @@
 package ru.dosport.entities;
 
 import lombok.*;
+import org.hibernate.annotations.ColumnTransformer;
 import org.springframework.data.geo.Point;
 
 import javax.persistence.*;
@@ -22,7 +23,8 @@ public class SportGround {
     // 1. Список избраных площадок (или ещё таблица в этом модуле или перенести к пользователю - надо обдумать)
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sportgrounds_id_seq")
+    @SequenceGenerator(name = "sportgrounds_id_seq", sequenceName = "sportgrounds_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -34,6 +36,8 @@ public class SportGround {
     private String city;
 
     //Широта и Долгота (x, y)
+    @Convert(converter = PointConverter.class)
+    @ColumnTransformer(write = "CAST(? AS point)")
     @Column(name = "location", nullable = false, columnDefinition = "point")
     private Point location;
 
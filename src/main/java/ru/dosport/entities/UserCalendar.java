@@ -3,39 +3,57 @@ package ru.dosport.entities;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Immutable;
 
 import javax.persistence.*;
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.LocalTime;
 
 /**
- * Сущность календарь пользователя
+ * Сущность Календарь пользователя: мероприятие, в котором участвует пользователь.
+ * Копия данных мероприятия и участника, изменяется только вместе с ними через UserCalendarRepository
  */
-//@Entity
+@Entity
 @Getter
 @Setter
 @NoArgsConstructor
-//@Table(name = "user_calendar")
+@Immutable
+@Table(name = "user_calendar")
+@IdClass(UserCalendarKey.class)
 public class UserCalendar {
 
-    //TODO:
-    // 1. раскомментировать и дописать поля сущности
-    // 2. построить правильные соотношения полей сущностей с БД
-    // 3. создать скрипт создания таблицы БД по образу имеющихся в resourses/db.migration
-    /*
+    // Пользователь - владелец календаря
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    @Column(name = "id")
-    private Long id;
+    @Column(name = "user_id")
+    private long userId;
 
-    // Пользователь - владелец календаря
-    @JoinColumn(name = "user_id", nullable = false, unique = true)
-    private User user;
-
-    // Список мероприятий
-    @ManyToMany(cascade = CascadeType.ALL)
-    @JoinTable(name = "event_id")
-    private Map<LocalDate, Event> kindsOfSport = new HashMap<>();
-    */
+    // Мероприятие
+    @Id
+    @Column(name = "event_id")
+    private long eventId;
+
+    // Дата проведения мероприятия
+    @Column(name = "date", nullable = false)
+    private LocalDate date;
+
+    // Время начала мероприятия
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    // Время завершения мероприятия
+    @Column(name = "end_time")
+    private LocalTime endTime;
+
+    // Вид спорта
+    @Column(name = "sport_type_id", nullable = false)
+    private short sportTypeId;
+
+    // Игровая площадка
+    @Column(name = "sportground_id", nullable = false)
+    private long sportGroundId;
+
+    // Принят пользователь или ожидает свободного места
+    @Enumerated(EnumType.STRING)
+    @Column(name = "member_status", nullable = false)
+    private MemberStatus memberStatus;
 }
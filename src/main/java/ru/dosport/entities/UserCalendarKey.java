@@ -0,0 +1,26 @@
+package ru.dosport.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Составной ключ для сущности Календарь пользователя: пользователь и мероприятие
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class UserCalendarKey implements Serializable {
+
+    static final long serialVersionUID = 1L;
+
+    private long userId;
+
+    private long eventId;
+}
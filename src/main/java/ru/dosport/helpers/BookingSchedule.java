@@ -0,0 +1,212 @@
+package ru.dosport.helpers;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Расписание занятости площадок в памяти для проверки пересечений и поиска свободного времени.
+ * Занятые интервалы площадки хранятся упорядоченными по времени начала. База данных не допускает
+ * пересечений интервалов одной площадки, поэтому пересечь запрошенный интервал может только ближайший
+ * начавшийся раньше него и начинающиеся внутри него - поиск занимает O(log n) без дерева интервалов.
+ * Чтение не требует блокировок, запись выполняется под блокировкой расписания.
+ */
+public class BookingSchedule {
+
+    // Длительность мероприятия без времени завершения
+    public static final Duration DEFAULT_DURATION = Duration.ofHours(1);
+
+    // Порядок интервалов площадки: по времени начала, затем по мероприятию
+    private static final Comparator<Booking> BY_START = Comparator.comparing(Booking::getStart)
+            .thenComparingLong(Booking::getEventId);
+
+    // Площадка -> занятые интервалы
+    private final Map<Long, NavigableSet<Booking>> grounds = new ConcurrentHashMap<>();
+
+    // Интервалы по идентификатору мероприятия
+    private final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+
+    /**
+     * Время завершения мероприятия по тем же правилам, что и в ограничении базы данных:
+     * мероприятие без времени завершения длится час, завершающееся не позже времени начала - заканчивается
+     * на следующий день
+     */
+    public static LocalDateTime getEnd(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        if (endTime == null) {
+            return date.atTime(startTime).plus(DEFAULT_DURATION);
+        }
+        return endTime.isAfter(startTime) ? date.atTime(endTime) : date.plusDays(1).atTime(endTime);
+    }
+
+    /**
+     * Добавить или перенести интервал мероприятия
+     */
+    public synchronized void put(Booking booking) {
+        remove(booking.getEventId());
+        grounds.computeIfAbsent(booking.getGroundId(), id -> new ConcurrentSkipListSet<>(BY_START)).add(booking);
+        bookings.put(booking.getEventId(), booking);
+    }
+
+    /**
+     * Добавить список интервалов
+     */
+    public synchronized void putAll(Collection<Booking> newBookings) {
+        newBookings.forEach(this::put);
+    }
+
+    /**
+     * Удалить интервал мероприятия
+     */
+    public synchronized void remove(long eventId) {
+        Booking booking = bookings.remove(eventId);
+        if (booking != null) {
+            NavigableSet<Booking> ground = grounds.get(booking.getGroundId());
+            if (ground != null) {
+                ground.remove(booking);
+            }
+        }
+    }
+
+    /**
+     * Удалить интервалы, завершившиеся не позже указанного времени
+     */
+    public synchronized void removeEndedBefore(LocalDateTime time) {
+        bookings.values().removeIf(booking -> {
+            if (booking.getEnd().isAfter(time)) {
+                return false;
+            }
+            grounds.get(booking.getGroundId()).remove(booking);
+            return true;
+        });
+        grounds.values().removeIf(NavigableSet::isEmpty);
+    }
+
+    /**
+     * Количество интервалов в расписании
+     */
+    public int size() {
+        return bookings.size();
+    }
+
+    /**
+     * Найти интервал площадки, пересекающийся с заданным
+     *
+     * @param excludeEventId мероприятие, интервал которого не учитывается, или null
+     * @return пересекающийся интервал или null, если площадка свободна
+     */
+    public Booking findConflict(long groundId, LocalDateTime start, LocalDateTime end, Long excludeEventId) {
+        for (Booking booking : findOverlapping(groundId, start, end)) {
+            if (excludeEventId == null || booking.getEventId() != excludeEventId) {
+                return booking;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Найти интервалы площадки, пересекающиеся с заданным, упорядоченные по времени начала
+     */
+    public List<Booking> findOverlapping(long groundId, LocalDateTime start, LocalDateTime end) {
+        List<Booking> result = new ArrayList<>();
+        NavigableSet<Booking> ground = grounds.get(groundId);
+        if (ground == null) {
+            return result;
+        }
+        Booking probe = new Booking(Long.MIN_VALUE, groundId, start, start);
+        Booking previous = ground.lower(probe);
+        for (Booking booking : ground.tailSet(previous != null ? previous : probe, true)) {
+            if (!booking.getStart().isBefore(end)) {
+                break;
+            }
+            if (booking.getEnd().isAfter(start)) {
+                result.add(booking);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Найти свободные интервалы площадки внутри заданного
+     *
+     * @param minDuration минимальная длительность свободного интервала
+     */
+    public List<Slot> findFreeSlots(long groundId, LocalDateTime from, LocalDateTime to, Duration minDuration) {
+        return findFreeSlots(findOverlapping(groundId, from, to), from, to, minDuration);
+    }
+
+    /**
+     * Найти свободные интервалы внутри заданного между занятыми интервалами, которые могут пересекаться
+     *
+     * @param bookings занятые интервалы, упорядоченные по времени начала
+     * @param minDuration минимальная длительность свободного интервала
+     */
+    public static List<Slot> findFreeSlots(List<Booking> bookings, LocalDateTime from, LocalDateTime to,
+                                           Duration minDuration) {
+        List<Slot> slots = new ArrayList<>();
+        LocalDateTime free = from;
+        for (Booking booking : bookings) {
+            addSlot(slots, free, booking.getStart(), minDuration);
+            if (booking.getEnd().isAfter(free)) {
+                free = booking.getEnd();
+            }
+        }
+        addSlot(slots, free, to, minDuration);
+        return slots;
+    }
+
+    private static void addSlot(List<Slot> slots, LocalDateTime start, LocalDateTime end, Duration minDuration) {
+        if (start.isBefore(end) && Duration.between(start, end).compareTo(minDuration) >= 0) {
+            slots.add(new Slot(start, end));
+        }
+    }
+
+    /**
+     * Занятый интервал площадки: мероприятие, площадка, полуоткрытый интервал [начало, завершение)
+     */
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    public static class Booking {
+
+        private final long eventId;
+
+        private final long groundId;
+
+        private final LocalDateTime start;
+
+        private final LocalDateTime end;
+
+        public static Booking of(long eventId, long groundId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+            return new Booking(eventId, groundId, date.atTime(startTime), BookingSchedule.getEnd(date, startTime, endTime));
+        }
+
+        public boolean overlaps(Booking other) {
+            return start.isBefore(other.end) && other.start.isBefore(end);
+        }
+    }
+
+    /**
+     * Свободный интервал площадки [начало, завершение)
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Slot {
+
+        private final LocalDateTime start;
+
+        private final LocalDateTime end;
+    }
+}
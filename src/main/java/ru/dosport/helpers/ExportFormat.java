@@ -0,0 +1,76 @@
+package ru.dosport.helpers;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.dosport.exceptions.DataBadRequestException;
+
+import java.util.concurrent.Callable;
+
+import static ru.dosport.helpers.Messages.INVALID_EXPORT_FORMAT;
+
+/**
+ * Формат выгрузки данных
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+
+    // Строка заголовка и по строке на запись
+    CSV("text/csv", "csv"),
+
+    // По JSON объекту на строку
+    JSONL("application/x-ndjson", "jsonl");
+
+    private final String mediaType;
+
+    private final String extension;
+
+    /**
+     * Сформировать ответ с выгрузкой в виде файла.
+     * Выгрузка пишется в поток ответа асинхронно, и только для нее время ожидания асинхронного ответа
+     * заменяется на timeout, остальные асинхронные ответы ограничены общей настройкой
+     *
+     * @param name имя файла без расширения
+     * @param body запись выгрузки в поток ответа
+     * @param request текущий запрос
+     * @param timeout время ожидания окончания выгрузки, мс
+     */
+    public ResponseEntity<StreamingResponseBody> toResponse(String name, StreamingResponseBody body,
+                                                            WebRequest request, long timeout) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ExportFormat.class.getName(),
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void beforeConcurrentHandling(NativeWebRequest asyncRequest, Callable<T> task) {
+                        // Вызывается до начала асинхронной обработки, когда время ожидания еще можно изменить
+                        if (asyncRequest instanceof AsyncWebRequest) {
+                            ((AsyncWebRequest) asyncRequest).setTimeout(timeout);
+                        }
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(mediaType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + name + "." + extension)
+                .body(body);
+    }
+
+    /**
+     * Найти формат по названию без учета регистра
+     */
+    public static ExportFormat of(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new DataBadRequestException(String.format(INVALID_EXPORT_FORMAT, name));
+    }
+}
@@ -0,0 +1,53 @@
+package ru.dosport.helpers;
+
+/**
+ * Утилиты для расчетов по географическим координатам
+ */
+public final class GeoUtils {
+
+    private GeoUtils() {
+    }
+
+    // Средний радиус Земли, км
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    // Длина одного градуса дуги большого круга, км, согласована с радиусом в формуле гаверсинусов
+    public static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    /**
+     * Проверить, что координаты заданы и находятся в допустимых пределах
+     */
+    public static boolean isValid(Double latitude, Double longitude) {
+        return latitude != null && longitude != null && Math.abs(latitude) <= 90 && Math.abs(longitude) <= 180;
+    }
+
+    /**
+     * Рассчитать расстояние между двумя точками по формуле гаверсинусов
+     *
+     * @return расстояние в км
+     */
+    public static double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.pow(Math.sin(dLatitude / 2), 2) + Math.cos(Math.toRadians(latitude1))
+                * Math.cos(Math.toRadians(latitude2)) * Math.pow(Math.sin(dLongitude / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Рассчитать, скольким градусам широты соответствует расстояние
+     */
+    public static double latitudeDelta(double radius) {
+        return radius / KM_PER_DEGREE;
+    }
+
+    /**
+     * Рассчитать, скольким градусам долготы соответствует расстояние на заданной широте:
+     * половину ширины прямоугольника, описанного вокруг окружности радиуса radius, asin(sin(r / R) / cos(широта))
+     */
+    public static double longitudeDelta(double latitude, double radius) {
+        double sin = Math.sin(Math.min(Math.PI / 2, radius / EARTH_RADIUS_KM));
+        double cos = Math.cos(Math.toRadians(latitude));
+        return sin >= cos ? 180.0 : Math.toDegrees(Math.asin(sin / cos));
+    }
+}
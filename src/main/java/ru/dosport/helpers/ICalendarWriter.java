@@ -0,0 +1,124 @@
+package ru.dosport.helpers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Запись календаря в формате iCalendar (RFC 5545) в поток.
+ * Строки длиннее 75 байт переносятся, текстовые значения экранируются.
+ */
+public class ICalendarWriter {
+
+    // Максимальная длина строки без переноса, байт
+    private static final int MAX_LINE_LENGTH = 75;
+
+    // Время без часового пояса: календарь показывает его в поясе пользователя, как время мероприятия
+    private static final DateTimeFormatter LOCAL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final Writer writer;
+
+    public ICalendarWriter(OutputStream output) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Начать календарь
+     *
+     * @param productId идентификатор программы, создавшей календарь
+     * @param name название календаря
+     */
+    public void beginCalendar(String productId, String name) throws IOException {
+        property("BEGIN", "VCALENDAR");
+        property("VERSION", "2.0");
+        text("PRODID", productId);
+        property("CALSCALE", "GREGORIAN");
+        property("METHOD", "PUBLISH");
+        text("X-WR-CALNAME", name);
+    }
+
+    /**
+     * Завершить календарь и записать остаток буфера в поток
+     */
+    public void endCalendar() throws IOException {
+        property("END", "VCALENDAR");
+        writer.flush();
+    }
+
+    /**
+     * Записать свойство без экранирования значения
+     */
+    public void property(String name, String value) throws IOException {
+        writeLine(name + ":" + value);
+    }
+
+    /**
+     * Записать текстовое свойство, экранируя значение
+     */
+    public void text(String name, String value) throws IOException {
+        writeLine(name + ":" + escape(value));
+    }
+
+    /**
+     * Записать время без часового пояса
+     */
+    public void localDateTime(String name, LocalDateTime value) throws IOException {
+        property(name, LOCAL_DATE_TIME.format(value));
+    }
+
+    /**
+     * Записать время в UTC
+     */
+    public void utcDateTime(String name, LocalDateTime value) throws IOException {
+        property(name, LOCAL_DATE_TIME.format(value.atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(ZoneOffset.UTC)) + "Z");
+    }
+
+    private static String escape(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                case ';':
+                case ',':
+                    builder.append('\\').append(c);
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    break;
+                default:
+                    builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Записать строку, перенося ее по 75 байт в UTF-8 без разрыва символов
+     */
+    private void writeLine(String line) throws IOException {
+        int bytes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            int length = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4 : Character.isLowSurrogate(c) ? 0 : 3;
+            if (bytes + length > MAX_LINE_LENGTH) {
+                writer.write("\r\n ");
+                // Продолжение строки начинается с пробела, который входит в ее длину
+                bytes = 1;
+            }
+            writer.write(c);
+            bytes += length;
+        }
+        writer.write("\r\n");
+    }
+}
@@ -26,10 +26,18 @@ public final class Messages {
 
     public static final String JWT_TOKEN_NOT_VALID = "Токен авторизации неверный либо истек его срок";
 
+    public static final String JWT_TOKEN_REVOKED = "Токен авторизации отозван";
+
+    public static final String REFRESH_TOKEN_INVALID = "Токен обновления неверный либо истек его срок";
+
     public static final String BAD_CREDENTIALS = "Введен неверный логин или пароль";
 
     public static final String OLD_PASSWORD_INVALID = "Текущий пароль введен неверно";
 
+    public static final String LOGIN_RATE_LIMITED = "Превышено количество попыток входа, повторите через %s с";
+
+    public static final String PASSWORD_HASHING_OVERLOADED = "Сервер перегружен запросами авторизации, повторите запрос позже";
+
     /**
      * Иные сообщения об ошибках логики и полей запросов
      */
@@ -47,6 +55,10 @@ public final class Messages {
 
     public static final String PASSWORDS_MISMATCH = "Значения полей Пароль и Подтверждение пароля должны совпадать";
 
+    public static final String INVALID_SPORT_LEVEL = "Уровень владения видом спорта должен быть от 0 до 5";
+
+    public static final String DUPLICATE_SPORT_TYPE = "Вид спорта c индексом %s указан несколько раз";
+
     public static final String USER_SPORT_NOT_FOUND_BY_USER_AND_SPORT_TYPE = "Вид спорта c индексом %s для пользователя c индексом %s не найден";
 
     public static final String DATA_NOT_FOUND_BY_ID = "Данные c индексом %s не найдены";
@@ -55,4 +67,50 @@ public final class Messages {
 
     public static final String DATA_NOT_FOUND = "Данные не найдены ";
 
+    public static final String INVALID_PAGE = "Номер страницы должен быть не меньше 0, размер страницы - от 1 до %s";
+    public static final String INVALID_PAGE_NUMBER = "Номер страницы должен быть от 0 до %s, размер страницы - от 1 до %s";
+
+    public static final String INVALID_CURSOR = "Неверный курсор страницы: %s";
+
+    public static final String INVALID_RADIUS = "Радиус поиска должен быть больше 0 и не больше %s км";
+
+    public static final String INVALID_DATE_RANGE = "Дата начала периода позже даты окончания";
+
+    public static final String INVALID_TIME_RANGE = "Время начала интервала позже времени окончания";
+
+    public static final String INVALID_BATCH_SIZE = "Количество записей в пакете должно быть от 1 до %s";
+
+    public static final String SPORTGROUND_ADDRESS_EXISTS = "Площадка с адресом %s уже существует";
+
+    public static final String INVALID_IMPORT_FILE = "Ошибка чтения файла импорта после %s записей: %s";
+    public static final String IMPORT_BATCH_SKIPPED = "Пакет %s пропущен, площадок %s: %s";
+
+    public static final String INVALID_EXPORT_FORMAT = "Неподдерживаемый формат выгрузки: %s, допустимы csv и jsonl";
+
+    public static final String INVALID_MAX_MEMBERS = "Максимальное количество участников должно быть не меньше 1 и не меньше числа принятых участников";
+
+    public static final String MEMBER_ALREADY_EXISTS = "Пользователь c индексом %s уже участвует в мероприятии";
+
+    public static final String MEMBER_NOT_FOUND = "Пользователь c индексом %s не участвует в мероприятии";
+
+    public static final String INVALID_CALENDAR_RANGE = "Начало периода календаря должно быть не позже окончания, период - не больше %s дней";
+
+    public static final String CALENDAR_FEED_NOT_FOUND = "Подписка на календарь не найдена";
+
+    public static final String SPORTGROUND_BOOKED = "Площадка уже занята в это время";
+
+    public static final String SPORTGROUND_BOOKED_BY_EVENT = "Площадка занята мероприятием c индексом %s с %s до %s";
+
+    public static final String INVALID_SLOT_DURATION = "Длительность свободного интервала должна быть от 0 до %s минут";
+
+    public static final String SPORTGROUND_BOOKED_BY_SERIES = "Площадка занята повторяющимся мероприятием c индексом %s с %s до %s";
+
+    public static final String INVALID_RECURRENCE = "Интервал повторения должен быть от 1 до %s недель, дата окончания - не раньше даты начала";
+
+    public static final String OCCURRENCE_NOT_FOUND = "Повторяющееся мероприятие c индексом %s не проводится %s";
+
+    public static final String INVALID_OCCURRENCE_RANGE = "Начало периода должно быть не позже окончания, период - не больше %s дней";
+
+    public static final String INVALID_COORDINATES = "Неверно заданы координаты: широта от -90 до 90, долгота от -180 до 180";
+
 }
@@ -0,0 +1,114 @@
+package ru.dosport.helpers;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import ru.dosport.dto.KeysetPage;
+import ru.dosport.exceptions.DataBadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static ru.dosport.helpers.Messages.INVALID_CURSOR;
+import static ru.dosport.helpers.Messages.INVALID_PAGE;
+
+/**
+ * Утилиты постраничного вывода по ключу (keyset pagination).
+ * Курсор - значения ключа последней записи страницы, закодированные в base64.
+ */
+public final class Pagination {
+
+    private Pagination() {
+    }
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Заголовок ответа с курсором следующей страницы
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String CURSOR_PARAMETER = "cursor";
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Проверить размер страницы
+     *
+     * @param size запрошенный размер страницы или null для размера по умолчанию
+     * @return размер страницы
+     */
+    public static int getLimit(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new DataBadRequestException(String.format(INVALID_PAGE, MAX_PAGE_SIZE));
+        }
+        return size;
+    }
+
+    /**
+     * Закодировать значения ключа в курсор
+     */
+    public static String encodeCursor(Object... keys) {
+        String value = Stream.of(keys).map(String::valueOf).collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Раскодировать курсор в значения ключа
+     *
+     * @param length количество значений ключа
+     * @param parser преобразование значений ключа
+     * @return ключ или null, если курсор не задан
+     */
+    public static <T> T decodeCursor(String cursor, int length, Function<String[], T> parser) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] keys = value.split("\\|", -1);
+            if (keys.length != length) {
+                throw new IllegalArgumentException(value);
+            }
+            return parser.apply(keys);
+        } catch (RuntimeException e) {
+            throw new DataBadRequestException(String.format(INVALID_CURSOR, cursor));
+        }
+    }
+
+    /**
+     * Сформировать страницу из записей, запрошенных с запасом в одну запись
+     *
+     * @param rows записи, не более limit + 1
+     * @param limit размер страницы
+     * @param cursorMapper получение курсора по записи
+     */
+    public static <T> KeysetPage<T> toPage(List<T> rows, int limit, Function<T, String> cursorMapper) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> content = rows.subList(0, limit);
+        return new KeysetPage<>(content, cursorMapper.apply(content.get(limit - 1)));
+    }
+
+    /**
+     * Сформировать ответ со страницей данных и ссылкой на следующую страницу в заголовках Link и X-Next-Cursor
+     */
+    public static <T> ResponseEntity<List<T>> toResponse(KeysetPage<T> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam(CURSOR_PARAMETER, page.getNextCursor()).toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            headers.add(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+}
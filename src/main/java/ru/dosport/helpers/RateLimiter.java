@@ -0,0 +1,112 @@
+package ru.dosport.helpers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничитель частоты запросов по ключу (token bucket) в памяти.
+ * Реализован алгоритмом GCRA: для каждого ключа хранится одно число - теоретическое время прибытия следующего
+ * запроса, которое изменяется операцией compare-and-set, поэтому проверка не требует блокировок.
+ * Корзина вмещает capacity запросов и пополняется на один запрос каждые refillPeriod.
+ * Количество ключей ограничено maxKeys (с превышением не больше чем на число одновременных запросов):
+ * записи полностью пополненных корзин удаляются не чаще одного раза за refillPeriod, а пока таблица заполнена
+ * действующими записями, новые ключи не добавляются, и их запросы учитываются в общей корзине переполнения
+ * или пропускаются без учета.
+ */
+public class RateLimiter {
+
+    // Интервал пополнения корзины на один запрос, нс
+    private final long emissionInterval;
+
+    // Допустимое опережение расписания: емкость корзины без одного запроса, нс
+    private final long tolerance;
+
+    // Максимальное количество ключей
+    private final int maxKeys;
+
+    // Общая корзина новых ключей, пока таблица заполнена, null - их запросы пропускаются без учета
+    private final AtomicLong overflow;
+
+    // Источник текущего времени, нс
+    private final LongSupplier clock;
+
+    // Ключ -> теоретическое время прибытия следующего запроса, нс
+    private final Map<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+
+    // Время, не раньше которого выполняется следующая очистка таблицы, нс
+    private final AtomicLong nextEviction;
+
+    /**
+     * @param capacity максимальное количество запросов подряд
+     * @param refillPeriodNanos интервал пополнения корзины на один запрос, нс
+     * @param maxKeys максимальное количество ключей
+     * @param sharedOverflow true - учитывать запросы новых ключей при заполненной таблице в общей корзине,
+     *                       false - пропускать их
+     * @param clock источник текущего времени, нс, например System::nanoTime
+     */
+    public RateLimiter(int capacity, long refillPeriodNanos, int maxKeys, boolean sharedOverflow, LongSupplier clock) {
+        if (capacity < 1 || refillPeriodNanos < 1) {
+            throw new IllegalArgumentException("Емкость корзины и интервал пополнения должны быть больше 0");
+        }
+        this.emissionInterval = refillPeriodNanos;
+        this.tolerance = refillPeriodNanos * (capacity - 1);
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        this.nextEviction = new AtomicLong(clock.getAsLong());
+        this.overflow = sharedOverflow ? new AtomicLong(nextEviction.get()) : null;
+    }
+
+    /**
+     * Израсходовать один запрос из корзины ключа
+     *
+     * @return 0, если запрос разрешен, иначе через сколько наносекунд в корзине появится запрос
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        AtomicLong arrival = arrivals.get(key);
+        if (arrival == null) {
+            if (arrivals.size() < maxKeys || evict(now)) {
+                arrival = arrivals.computeIfAbsent(key, k -> new AtomicLong(now));
+            } else if (overflow != null) {
+                arrival = overflow;
+            } else {
+                return 0;
+            }
+        }
+        while (true) {
+            long current = arrival.get();
+            // Время сравнивается через разность, так как значения System.nanoTime могут быть отрицательными
+            long theoretical = current - now > 0 ? current : now;
+            long wait = theoretical - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, theoretical + emissionInterval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Количество ключей с записями
+     */
+    public int size() {
+        return arrivals.size();
+    }
+
+    /**
+     * Удалить записи ключей, корзины которых полностью пополнены. Очистка перебирает всю таблицу, поэтому
+     * выполняется одним потоком не чаще одного раза за интервал пополнения, а не на каждый новый ключ
+     *
+     * @return true, если в таблице есть место для нового ключа
+     */
+    private boolean evict(long now) {
+        long next = nextEviction.get();
+        if (next - now <= 0 && nextEviction.compareAndSet(next, now + emissionInterval)) {
+            arrivals.values().removeIf(arrival -> arrival.get() - now <= 0);
+        }
+        return arrivals.size() < maxKeys;
+    }
+}
@@ -0,0 +1,109 @@
+package ru.dosport.helpers;
+
+import lombok.Getter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Правило еженедельного повторения мероприятия: каждые intervalWeeks недель по заданным дням недели,
+ * начиная с недели даты начала и до даты окончания или бессрочно.
+ * Даты повторений вычисляются для запрошенного периода и нигде не хранятся.
+ */
+@Getter
+public class Recurrence {
+
+    private final LocalDate startDate;
+
+    // Дата окончания включительно или null для бессрочного повторения
+    private final LocalDate endDate;
+
+    private final int intervalWeeks;
+
+    // Дни недели: бит (номер дня - 1), понедельник - младший бит
+    private final int daysOfWeek;
+
+    // Понедельник недели даты начала, от которого отсчитываются недели повторения
+    private final LocalDate firstWeek;
+
+    public Recurrence(LocalDate startDate, LocalDate endDate, int intervalWeeks, int daysOfWeek) {
+        if (intervalWeeks < 1 || daysOfWeek < 1 || daysOfWeek > 127) {
+            throw new IllegalArgumentException("Неверное правило повторения: интервал " + intervalWeeks
+                    + ", дни недели " + daysOfWeek);
+        }
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.intervalWeeks = intervalWeeks;
+        this.daysOfWeek = daysOfWeek;
+        this.firstWeek = startDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /**
+     * Битовая маска дней недели
+     */
+    public static int toMask(Collection<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        return mask;
+    }
+
+    /**
+     * Дни недели по битовой маске
+     */
+    public static Set<DayOfWeek> fromMask(int mask) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((mask & 1 << (day.getValue() - 1)) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Проверить, приходится ли повторение на дату
+     */
+    public boolean occursOn(LocalDate date) {
+        if (date.isBefore(startDate) || (endDate != null && date.isAfter(endDate))
+                || (daysOfWeek & 1 << (date.getDayOfWeek().getValue() - 1)) == 0) {
+            return false;
+        }
+        return ChronoUnit.WEEKS.between(firstWeek, date) % intervalWeeks == 0;
+    }
+
+    /**
+     * Даты повторений в периоде, упорядоченные по возрастанию
+     *
+     * @param from начало периода включительно
+     * @param to окончание периода включительно
+     */
+    public List<LocalDate> expand(LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate first = from.isBefore(startDate) ? startDate : from;
+        LocalDate last = endDate != null && endDate.isBefore(to) ? endDate : to;
+        if (first.isAfter(last)) {
+            return dates;
+        }
+        // Недели без повторений пропускаются целиком
+        long weeks = ChronoUnit.WEEKS.between(firstWeek, first.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+        LocalDate week = firstWeek.plusWeeks((weeks + intervalWeeks - 1) / intervalWeeks * intervalWeeks);
+        for (; !week.isAfter(last); week = week.plusWeeks(intervalWeeks)) {
+            for (int day = 0; day < 7; day++) {
+                LocalDate date = week.plusDays(day);
+                if ((daysOfWeek & 1 << day) != 0 && !date.isBefore(first) && !date.isAfter(last)) {
+                    dates.add(date);
+                }
+            }
+        }
+        return dates;
+    }
+}
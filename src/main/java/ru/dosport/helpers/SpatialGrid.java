@@ -0,0 +1,301 @@
+package ru.dosport.helpers;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Равномерная сетка точек на карте для поиска ближайших объектов в памяти.
+ * Каждая ячейка сетки - квадрат со стороной cellSize градусов, содержащий список точек.
+ * Чтение не требует блокировок, запись выполняется копированием списка ячейки.
+ */
+public class SpatialGrid {
+
+    // Максимальный радиус расширения области при поиске ближайших точек, км
+    private static final double MAX_NEAREST_RADIUS = 200.0;
+
+    // Максимальное количество ячеек, обходимых при поиске ближайших точек
+    private static final long MAX_NEAREST_CELLS = 10_000;
+
+    // Порядок очереди ближайших точек: в голове самая дальняя
+    private static final Comparator<Result> FARTHEST_FIRST = Comparator.comparingDouble(Result::getDistance)
+            .thenComparingLong(r -> r.getEntry().getId()).reversed();
+
+    // Размер ячейки, градусы
+    private final double cellSize;
+
+    // Количество ячеек по долготе
+    private final long columns;
+
+    // Ячейки сетки по ключу (строка, столбец)
+    private final Map<Long, List<Entry>> cells = new ConcurrentHashMap<>();
+
+    // Точки по идентификатору объекта
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public SpatialGrid(double cellSize) {
+        if (cellSize <= 0 || cellSize > 90) {
+            throw new IllegalArgumentException("Размер ячейки сетки должен быть от 0 до 90 градусов: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.columns = (long) Math.ceil(360.0 / cellSize) + 1;
+    }
+
+    /**
+     * Добавить или переместить точку
+     */
+    public void put(Entry entry) {
+        remove(entry.getId());
+        cells.computeIfAbsent(getCellKey(entry.getLatitude(), entry.getLongitude()),
+                key -> new CopyOnWriteArrayList<>()).add(entry);
+        entries.put(entry.getId(), entry);
+    }
+
+    /**
+     * Добавить список точек, копируя список каждой ячейки один раз
+     */
+    public void putAll(Collection<Entry> newEntries) {
+        Map<Long, List<Entry>> byCell = new HashMap<>();
+        for (Entry entry : newEntries) {
+            remove(entry.getId());
+            byCell.computeIfAbsent(getCellKey(entry.getLatitude(), entry.getLongitude()),
+                    key -> new ArrayList<>()).add(entry);
+            entries.put(entry.getId(), entry);
+        }
+        byCell.forEach((key, list) -> cells.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).addAll(list));
+    }
+
+    /**
+     * Удалить точку по идентификатору объекта
+     */
+    public void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            List<Entry> cell = cells.get(getCellKey(entry.getLatitude(), entry.getLongitude()));
+            if (cell != null) {
+                cell.remove(entry);
+            }
+        }
+    }
+
+    /**
+     * Количество точек в сетке
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Найти точки в радиусе от заданной, отсортированные по расстоянию
+     *
+     * @param radius радиус, км
+     * @param sportTypeId вид спорта или null, если вид спорта не важен
+     * @param limit максимальное количество результатов
+     */
+    public List<Result> findWithin(double latitude, double longitude, double radius, Short sportTypeId, int limit) {
+        return findWithin(latitude, longitude, radius, sportTypeId, limit, null);
+    }
+
+    /**
+     * Найти точки в радиусе от заданной, удовлетворяющие условию, отсортированные по расстоянию.
+     * Условие проверяется только для точек, которые попадают в результат по расстоянию
+     *
+     * @param radius радиус, км
+     * @param sportTypeId вид спорта или null, если вид спорта не важен
+     * @param limit максимальное количество результатов
+     * @param filter условие отбора точек или null
+     */
+    public List<Result> findWithin(double latitude, double longitude, double radius, Short sportTypeId, int limit,
+                                   Predicate<Entry> filter) {
+        double dLatitude = GeoUtils.latitudeDelta(radius);
+        double dLongitude = GeoUtils.longitudeDelta(latitude, radius);
+        double minLatitude = Math.max(-90.0, latitude - dLatitude);
+        double maxLatitude = Math.min(90.0, latitude + dLatitude);
+        double minLongitude = Math.max(-180.0, longitude - dLongitude);
+        double maxLongitude = Math.min(180.0, longitude + dLongitude);
+
+        PriorityQueue<Result> nearest = new PriorityQueue<>(FARTHEST_FIRST);
+        for (long row = getRow(minLatitude); row <= getRow(maxLatitude); row++) {
+            for (long column = getColumn(minLongitude); column <= getColumn(maxLongitude); column++) {
+                List<Entry> cell = cells.get(row * columns + column);
+                if (cell == null) {
+                    continue;
+                }
+                for (Entry entry : cell) {
+                    if (entry.getLatitude() < minLatitude || entry.getLatitude() > maxLatitude
+                            || entry.getLongitude() < minLongitude || entry.getLongitude() > maxLongitude) {
+                        continue;
+                    }
+                    offer(nearest, entry, latitude, longitude, radius, sportTypeId, limit, filter);
+                }
+            }
+        }
+        return toSortedList(nearest);
+    }
+
+    /**
+     * Найти ближайшие к заданной точки, обходя кольца ячеек вокруг нее.
+     * Обход заканчивается, когда все необойденные ячейки дальше уже найденных точек.
+     * Обход прерывается после MAX_NEAREST_CELLS ячеек, чтобы поиск в малонаселенной области
+     * или по редкому виду спорта не перебирал сотни тысяч пустых ячеек.
+     *
+     * @param sportTypeId вид спорта или null, если вид спорта не важен
+     * @return ближайшие точки или null, если обход прерван до того, как они были найдены
+     */
+    public List<Result> findNearest(double latitude, double longitude, int count, Short sportTypeId) {
+        PriorityQueue<Result> nearest = new PriorityQueue<>(FARTHEST_FIRST);
+        long centerRow = getRow(latitude);
+        long centerColumn = getColumn(longitude);
+        for (long ring = 0; (2 * ring + 1) * (2 * ring + 1) <= MAX_NEAREST_CELLS; ring++) {
+            for (long row = centerRow - ring; row <= centerRow + ring; row++) {
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                long step = edgeRow || ring == 0 ? 1 : 2 * ring;
+                for (long column = centerColumn - ring; column <= centerColumn + ring; column += step) {
+                    List<Entry> cell = cells.get(row * columns + column);
+                    if (cell != null && column >= 0 && column < columns) {
+                        for (Entry entry : cell) {
+                            offer(nearest, entry, latitude, longitude, MAX_NEAREST_RADIUS, sportTypeId, count,
+                                    null);
+                        }
+                    }
+                }
+            }
+            double boundary = getDistanceOutside(latitude, longitude, centerRow - ring, centerRow + ring,
+                    centerColumn - ring, centerColumn + ring);
+            if ((nearest.size() == count && nearest.peek().getDistance() <= boundary)
+                    || boundary >= MAX_NEAREST_RADIUS) {
+                return toSortedList(nearest);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Наименьшее расстояние от точки до точек за пределами прямоугольника ячеек, км.
+     * Ближайшая точка параллели лежит на меридиане заданной точки, а расстояние до меридиана,
+     * отстоящего на угол dLongitude, равно R * asin(cos(широта) * sin(dLongitude))
+     */
+    private double getDistanceOutside(double latitude, double longitude, long minRow, long maxRow,
+                                      long minColumn, long maxColumn) {
+        double south = minRow * cellSize - 90.0;
+        double north = (maxRow + 1) * cellSize - 90.0;
+        double west = minColumn * cellSize - 180.0;
+        double east = (maxColumn + 1) * cellSize - 180.0;
+        double cosLatitude = Math.cos(Math.toRadians(latitude));
+        double distance = Double.POSITIVE_INFINITY;
+        if (south > -90.0) {
+            distance = Math.min(distance, GeoUtils.EARTH_RADIUS_KM * Math.toRadians(latitude - south));
+        }
+        if (north < 90.0) {
+            distance = Math.min(distance, GeoUtils.EARTH_RADIUS_KM * Math.toRadians(north - latitude));
+        }
+        if (west > -180.0) {
+            distance = Math.min(distance, getMeridianDistance(cosLatitude, longitude - west));
+        }
+        if (east < 180.0) {
+            distance = Math.min(distance, getMeridianDistance(cosLatitude, east - longitude));
+        }
+        return distance;
+    }
+
+    private static double getMeridianDistance(double cosLatitude, double dLongitude) {
+        return GeoUtils.EARTH_RADIUS_KM * Math.asin(cosLatitude * Math.sin(Math.toRadians(Math.min(90.0, dLongitude))));
+    }
+
+    /**
+     * Добавить точку в очередь ближайших, если она подходит и ближе самой дальней из них
+     */
+    private static void offer(PriorityQueue<Result> nearest, Entry entry, double latitude, double longitude,
+                              double radius, Short sportTypeId, int limit, Predicate<Entry> filter) {
+        if (sportTypeId != null && !entry.hasSportType(sportTypeId)) {
+            return;
+        }
+        // Расстояние по дуге не меньше разницы широт, поэтому дальние точки отбрасываются без расчета
+        if (limit > 0 && nearest.size() == limit && GeoUtils.EARTH_RADIUS_KM
+                * Math.toRadians(Math.abs(entry.getLatitude() - latitude)) > nearest.peek().getDistance()) {
+            return;
+        }
+        double distance = GeoUtils.distance(latitude, longitude, entry.getLatitude(), entry.getLongitude());
+        if (distance > radius) {
+            return;
+        }
+        Result result = new Result(entry, distance);
+        boolean full = nearest.size() >= limit;
+        if (full && (limit == 0 || FARTHEST_FIRST.compare(result, nearest.peek()) <= 0)) {
+            return;
+        }
+        // Условие отбора может быть дороже расчета расстояния, поэтому проверяется последним
+        if (filter != null && !filter.test(entry)) {
+            return;
+        }
+        if (full) {
+            nearest.poll();
+        }
+        nearest.add(result);
+    }
+
+    private static List<Result> toSortedList(PriorityQueue<Result> nearest) {
+        List<Result> results = new ArrayList<>(nearest);
+        results.sort(FARTHEST_FIRST.reversed());
+        return results;
+    }
+
+    private long getCellKey(double latitude, double longitude) {
+        return getRow(latitude) * columns + getColumn(longitude);
+    }
+
+    private long getRow(double latitude) {
+        return (long) Math.floor((latitude + 90.0) / cellSize);
+    }
+
+    private long getColumn(double longitude) {
+        return (long) Math.floor((longitude + 180.0) / cellSize);
+    }
+
+    /**
+     * Точка сетки: объект, его координаты и виды спорта
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Entry {
+
+        private final long id;
+
+        private final double latitude;
+
+        private final double longitude;
+
+        private final short[] sportTypeIds;
+
+        public boolean hasSportType(short sportTypeId) {
+            for (short id : sportTypeIds) {
+                if (id == sportTypeId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Результат поиска: точка и расстояние до нее, км
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Result {
+
+        private final Entry entry;
+
+        private final double distance;
+    }
+}
@@ -6,6 +6,7 @@ import ru.dosport.dto.UserDto;
 import ru.dosport.dto.UserRequest;
 import ru.dosport.entities.EventMember;
 import ru.dosport.entities.User;
+import ru.dosport.repositories.MemberView;
 import ru.dosport.security.JwtUser;
 
 import java.util.List;
@@ -18,10 +19,39 @@ public interface EventMemberMapper {
 
     @Mappings({
             @Mapping(target = "eventId", source = "entity.event.id"),
-            @Mapping(target = "user", source = "userDto")
+            @Mapping(target = "user", source = "userDto"),
+            @Mapping(target = "statusUser", source = "entity.status"),
+            @Mapping(target = "memberStatus", source = "entity.memberStatus")
     })
     MemberDto mapEntityToDto(EventMember entity, UserDto userDto);
 
+    /**
+     * Участник в составе мероприятия: из данных пользователя только идентификатор
+     */
+    @Mappings({
+            @Mapping(target = "eventId", source = "entity.event.id"),
+            @Mapping(target = "user.id", source = "entity.userId"),
+            @Mapping(target = "statusUser", source = "entity.status"),
+            @Mapping(target = "memberStatus", source = "entity.memberStatus")
+    })
+    MemberDto mapEntityToDto(EventMember entity);
+
+    @Mappings({
+            @Mapping(target = "statusUser", source = "view.status"),
+            @Mapping(target = "user.id", source = "view.userId"),
+            @Mapping(target = "user.username", source = "view.username"),
+            @Mapping(target = "user.birthdayDate", source = "view.birthdayDate", dateFormat = "dd-MM-yyyy"),
+            @Mapping(target = "user.hideBirthdayDate", source = "view.hideBirthdayDate"),
+            @Mapping(target = "user.firstName", source = "view.firstName"),
+            @Mapping(target = "user.lastName", source = "view.lastName"),
+            @Mapping(target = "user.gender", source = "view.gender"),
+            @Mapping(target = "user.info", source = "view.info"),
+            @Mapping(target = "user.photoLink", source = "view.photoLink")
+    })
+    MemberDto mapViewToDto(MemberView view);
+
+    List<MemberDto> mapViewToDto(List<MemberView> views);
+
     @Mappings({
             @Mapping(target = "event", ignore = true),
             @Mapping(target = "userId", source = "dto.user.id")
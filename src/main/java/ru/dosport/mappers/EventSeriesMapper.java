@@ -0,0 +1,41 @@
+package ru.dosport.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Mappings;
+import org.mapstruct.ReportingPolicy;
+import ru.dosport.dto.EventOccurrenceDto;
+import ru.dosport.dto.EventSeriesDto;
+import ru.dosport.entities.EventSeries;
+import ru.dosport.helpers.Recurrence;
+
+import java.time.LocalDate;
+
+/**
+ * Маппер, преобразующий повторяющиеся мероприятия в EventSeriesDto и мероприятия серии на дату
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE, imports = Recurrence.class)
+public interface EventSeriesMapper {
+
+    @Mappings({
+            @Mapping(target = "seriesId", source = "entity.id"),
+            @Mapping(target = "sportTypeId", source = "entity.sportType.id"),
+            @Mapping(target = "sportGroundId", source = "entity.sportGround.id"),
+            @Mapping(target = "daysOfWeek", expression = "java(Recurrence.fromMask(entity.getDaysOfWeek()))")
+    })
+    EventSeriesDto mapEntityToDto(EventSeries entity);
+
+    @Mappings({
+            @Mapping(target = "seriesId", source = "entity.id"),
+            @Mapping(target = "dateEvent", source = "date"),
+            @Mapping(target = "startTimeEvent", source = "entity.startTime"),
+            @Mapping(target = "endTimeEvent", source = "entity.endTime"),
+            @Mapping(target = "sportTypeId", source = "entity.sportType.id"),
+            @Mapping(target = "sportGroundId", source = "entity.sportGround.id"),
+            @Mapping(target = "organizerId", source = "entity.organizerId"),
+            @Mapping(target = "maxMembers", source = "entity.maxMembers"),
+            @Mapping(target = "eventId", ignore = true),
+            @Mapping(target = "membersCount", ignore = true)
+    })
+    EventOccurrenceDto mapEntityToOccurrenceDto(EventSeries entity, LocalDate date);
+}
@@ -5,9 +5,14 @@ import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 import org.mapstruct.ReportingPolicy;
 import ru.dosport.dto.SportGroundDto;
+import ru.dosport.dto.SportGroundSummaryDto;
 import ru.dosport.entities.SportGround;
+import ru.dosport.repositories.SportGroundSummary;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Маппер, преобразующий классы SportGround и SportGroundDto друг в друга
@@ -29,4 +34,22 @@ public interface SportGroundMapper {
             @Mapping(target = "id", source = "dto.sportGroundId"),
     })
     SportGround mapDtoToEntity(SportGroundDto dto);
+
+    @Mappings({
+            @Mapping(target = "sportGroundId", source = "summary.id"),
+            @Mapping(target = "distance", ignore = true)
+    })
+    SportGroundSummaryDto mapSummaryToDto(SportGroundSummary summary);
+
+    List<SportGroundSummaryDto> mapSummaryToDto(List<SportGroundSummary> summaries);
+
+    /**
+     * Преобразовать список идентификаторов видов спорта через запятую в список
+     */
+    default List<Short> mapSportTypeIds(String sportTypeIds) {
+        if (sportTypeIds == null || sportTypeIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(sportTypeIds.split(",")).map(Short::valueOf).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,26 @@
+package ru.dosport.mappers;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Mappings;
+import org.mapstruct.ReportingPolicy;
+import ru.dosport.dto.CalendarEventDto;
+import ru.dosport.entities.UserCalendar;
+
+import java.util.List;
+
+/**
+ * Маппер, преобразующий записи календаря пользователя в CalendarEventDto
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface UserCalendarMapper {
+
+    @Mappings({
+            @Mapping(target = "dateEvent", source = "entity.date"),
+            @Mapping(target = "startTimeEvent", source = "entity.startTime"),
+            @Mapping(target = "endTimeEvent", source = "entity.endTime")
+    })
+    CalendarEventDto mapEntityToDto(UserCalendar entity);
+
+    List<CalendarEventDto> mapEntityToDto(List<UserCalendar> entities);
+}
@@ -0,0 +1,19 @@
+package ru.dosport.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.dosport.entities.CalendarFeed;
+
+import java.util.Optional;
+
+/**
+ * Репозиторий подписок на календари пользователей
+ */
+@Repository
+public interface CalendarFeedRepository extends JpaRepository<CalendarFeed, Long> {
+
+    /**
+     * Найти подписку по секретной части адреса
+     */
+    Optional<CalendarFeed> findByToken(String token);
+}
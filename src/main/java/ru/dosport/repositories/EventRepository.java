@@ -1,14 +1,24 @@
 package ru.dosport.repositories;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.dosport.entities.Event;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Репозиторий Мероприятий
  */
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, EventRepositoryCustom {
 
     /*
      * СОГЛАШЕНИЕ О НАИМЕНОВАНИИ МЕТОДОВ РЕПОЗИТОРИЕВ
@@ -21,4 +31,61 @@ public interface EventRepository extends JpaRepository<Event, Long> {
      * Object save(Object object) сохранить объект
      * List<Object> saveAll(List<Object> objects) сохранить список объектов
      */
+
+    /**
+     * Найти первую страницу мероприятий, упорядоченных по дате и идентификатору
+     */
+    @EntityGraph(Event.LIST_GRAPH)
+    List<Event> findAllByOrderByDateAscIdAsc(Pageable pageable);
+
+    /**
+     * Найти страницу мероприятий, следующих за мероприятием с указанными датой и идентификатором
+     */
+    @EntityGraph(Event.LIST_GRAPH)
+    @Query("SELECT e FROM Event e WHERE e.date > :date OR (e.date = :date AND e.id > :id) ORDER BY e.date, e.id")
+    List<Event> findAllAfter(@Param("date") LocalDate date, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Найти мероприятие вместе с видом спорта, площадкой и участниками одним запросом
+     */
+    @EntityGraph(Event.DETAIL_GRAPH)
+    Optional<Event> findDetailedById(Long id);
+
+    /**
+     * Найти время проведения мероприятий, начиная с указанной даты: id, sportground_id, date, start_time, end_time
+     */
+    @Query(value = "SELECT id, sportground_id, date, start_time, end_time FROM events WHERE date >= :date",
+            nativeQuery = true)
+    List<Object[]> findAllBookingsFrom(@Param("date") LocalDate date);
+
+    /**
+     * Найти время проведения мероприятий площадки, пересекающееся с интервалом [from, to),
+     * по индексу ограничения пересечений: id, sportground_id, date, start_time, end_time
+     */
+    @Query(value = "SELECT id, sportground_id, date, start_time, end_time FROM events " +
+            "WHERE sportground_id = :groundId " +
+            "AND event_period(date, start_time, end_time) && tsrange(CAST(:from AS TIMESTAMP), CAST(:to AS TIMESTAMP))",
+            nativeQuery = true)
+    List<Object[]> findAllBookings(@Param("groundId") Long groundId,
+                                   @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Найти площадки, занятые мероприятиями в интервале [from, to).
+     * Даты ограничивают выборку по индексу даты мероприятий
+     */
+    @Query(value = "SELECT DISTINCT sportground_id FROM events WHERE date BETWEEN :fromDate AND :toDate " +
+            "AND event_period(date, start_time, end_time) && tsrange(CAST(:from AS TIMESTAMP), CAST(:to AS TIMESTAMP))",
+            nativeQuery = true)
+    List<Number> findAllBookedGroundIds(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+                                        @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Найти сохраненные мероприятия повторяющихся серий в периоде
+     */
+    List<Event> findAllBySeriesIdInAndDateBetween(Collection<Long> seriesIds, LocalDate from, LocalDate to);
+
+    /**
+     * Проверить, сохранено ли мероприятие серии на дату
+     */
+    boolean existsBySeriesIdAndDate(Long seriesId, LocalDate date);
 }
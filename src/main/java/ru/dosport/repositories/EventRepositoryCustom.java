@@ -0,0 +1,23 @@
+package ru.dosport.repositories;
+
+import ru.dosport.dto.EventSearchRequest;
+import ru.dosport.entities.Event;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Запросы Мероприятий, составляемые динамически
+ */
+public interface EventRepositoryCustom {
+
+    /**
+     * Найти мероприятия по заданным параметрам поиска одним запросом, упорядоченные по дате и идентификатору
+     *
+     * @param request параметры поиска, незаданные параметры не учитываются
+     * @param afterDate дата последнего мероприятия предыдущей страницы или null для первой страницы
+     * @param afterId идентификатор последнего мероприятия предыдущей страницы
+     * @param limit максимальное количество мероприятий
+     */
+    List<Event> search(EventSearchRequest request, LocalDate afterDate, Long afterId, int limit);
+}
@@ -0,0 +1,71 @@
+package ru.dosport.repositories;
+
+import ru.dosport.dto.EventSearchRequest;
+import ru.dosport.entities.Event;
+import ru.dosport.entities.SportGround;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реализация запросов Мероприятий, составляемых динамически.
+ * В запрос попадают только заданные условия, поэтому каждая комбинация фильтров
+ * использует подходящий составной индекс (sport_type_id | sportground_id | organizer_user_id, date, id).
+ */
+public class EventRepositoryImpl implements EventRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Event> search(EventSearchRequest request, LocalDate afterDate, Long afterId, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Event> query = builder.createQuery(Event.class);
+        Root<Event> event = query.from(Event.class);
+        // Вид спорта и площадка загружаются тем же запросом
+        event.fetch("sportType");
+        @SuppressWarnings("unchecked")
+        Join<Event, SportGround> sportGround = (Join<Event, SportGround>) event.<Event, SportGround>fetch("sportGround");
+        Path<LocalDate> date = event.get("date");
+        Path<Long> id = event.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (request.getDateFrom() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(date, request.getDateFrom()));
+        }
+        if (request.getDateTo() != null) {
+            predicates.add(builder.lessThanOrEqualTo(date, request.getDateTo()));
+        }
+        if (request.getTimeFrom() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(event.get("startTime"), request.getTimeFrom()));
+        }
+        if (request.getTimeTo() != null) {
+            predicates.add(builder.lessThanOrEqualTo(event.get("startTime"), request.getTimeTo()));
+        }
+        if (request.getSportTypeId() != null) {
+            predicates.add(builder.equal(event.get("sportType").get("id"), request.getSportTypeId()));
+        }
+        if (request.getSportGroundId() != null) {
+            predicates.add(builder.equal(sportGround.get("id"), request.getSportGroundId()));
+        }
+        if (request.getCity() != null) {
+            predicates.add(builder.equal(sportGround.get("city"), request.getCity()));
+        }
+        if (request.getOrganizerId() != null) {
+            predicates.add(builder.equal(event.get("organizerId"), request.getOrganizerId()));
+        }
+        if (afterDate != null) {
+            predicates.add(builder.or(builder.greaterThan(date, afterDate),
+                    builder.and(builder.equal(date, afterDate), builder.greaterThan(id, afterId))));
+        }
+
+        query.select(event)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(builder.asc(date), builder.asc(id));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,31 @@
+package ru.dosport.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.dosport.entities.EventSeries;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Репозиторий Повторяющихся мероприятий
+ */
+@Repository
+public interface EventSeriesRepository extends JpaRepository<EventSeries, Long>, EventSeriesRepositoryCustom {
+
+    /**
+     * Найти серии, действующие в периоде
+     */
+    @Query("SELECT s FROM EventSeries s WHERE s.startDate <= :to AND (s.endDate IS NULL OR s.endDate >= :from)")
+    List<EventSeries> findAllActive(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Найти серии площадки, действующие в периоде
+     */
+    @Query("SELECT s FROM EventSeries s WHERE s.sportGround.id = :groundId AND s.startDate <= :to " +
+            "AND (s.endDate IS NULL OR s.endDate >= :from)")
+    List<EventSeries> findAllActiveBySportGroundId(@Param("groundId") Long groundId,
+                                                   @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,20 @@
+package ru.dosport.repositories;
+
+import java.time.LocalDate;
+
+/**
+ * Сохранение мероприятий повторяющейся серии
+ */
+public interface EventSeriesRepositoryCustom {
+
+    /**
+     * Сохранить мероприятие серии на дату, если оно еще не сохранено.
+     * Одновременные запросы сохраняют мероприятие один раз благодаря уникальному индексу (series_id, date).
+     * Должен выполняться в транзакции
+     *
+     * @param seriesId идентификатор серии
+     * @param date дата мероприятия серии
+     * @return идентификатор мероприятия
+     */
+    long materialize(long seriesId, LocalDate date);
+}
@@ -0,0 +1,34 @@
+package ru.dosport.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Реализация сохранения мероприятий повторяющейся серии: данные мероприятия копируются из серии
+ * одним INSERT ... SELECT, повторное сохранение той же даты пропускается
+ */
+@RequiredArgsConstructor
+public class EventSeriesRepositoryImpl implements EventSeriesRepositoryCustom {
+
+    private static final String INSERT = "INSERT INTO events (date, start_time, end_time, sport_type_id, " +
+            "sportground_id, organizer_user_id, max_members, series_id) " +
+            "SELECT :date, start_time, end_time, sport_type_id, sportground_id, organizer_user_id, max_members, id " +
+            "FROM event_series WHERE id = :seriesId " +
+            "ON CONFLICT (series_id, date) DO NOTHING";
+
+    private static final String SELECT_ID = "SELECT id FROM events WHERE series_id = :seriesId AND date = :date";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public long materialize(long seriesId, LocalDate date) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("seriesId", seriesId)
+                .addValue("date", Date.valueOf(date));
+        jdbcTemplate.update(INSERT, parameters);
+        return jdbcTemplate.queryForObject(SELECT_ID, parameters, Long.class);
+    }
+}
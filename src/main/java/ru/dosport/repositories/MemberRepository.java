@@ -1,10 +1,24 @@
 package ru.dosport.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.dosport.entities.EventMember;
 
 import java.util.List;
 
-public interface MemberRepository extends JpaRepository<EventMember, Long> {
+public interface MemberRepository extends JpaRepository<EventMember, Long>, MemberRepositoryCustom {
     List<EventMember> findAllByEventId(Long eventId);
+
+    /**
+     * Найти участников мероприятия вместе с данными пользователей одним запросом, без загрузки ролей пользователей.
+     * Сначала принятые участники, затем очередь ожидания по порядку
+     */
+    @Query("SELECT m.event.id AS eventId, m.status AS status, u.id AS userId, u.username AS username, " +
+            "u.birthdayDate AS birthdayDate, u.hideBirthdayDate AS hideBirthdayDate, u.firstName AS firstName, " +
+            "u.lastName AS lastName, u.gender AS gender, u.info AS info, u.photoLink AS photoLink, " +
+            "m.memberStatus AS memberStatus " +
+            "FROM EventMember m, User u WHERE u.id = m.userId AND m.event.id = :eventId " +
+            "ORDER BY m.memberStatus, m.queueNumber, m.id")
+    List<MemberView> findAllViewByEventId(@Param("eventId") Long eventId);
 }
@@ -0,0 +1,51 @@
+package ru.dosport.repositories;
+
+import ru.dosport.entities.EventMember;
+import ru.dosport.entities.MemberStatus;
+
+/**
+ * Операции вступления в мероприятие и выхода из него, атомарные при одновременных запросах
+ */
+public interface MemberRepositoryCustom {
+
+    /**
+     * Добавить участника мероприятия: занять свободное место условным UPDATE счетчика участников,
+     * а если мест нет - получить номер в очереди ожидания. Повторное вступление исключает уникальный индекс.
+     * Должен выполняться в транзакции, которая откатывается, если участник не добавлен
+     *
+     * @param eventId идентификатор существующего мероприятия
+     * @param userId идентификатор пользователя
+     * @param status статус пользователя в мероприятии
+     * @return добавленный участник или null, если пользователь уже участвует в мероприятии
+     */
+    EventMember join(long eventId, long userId, String status);
+
+    /**
+     * Удалить участника мероприятия. Место ушедшего принятого участника занимает первый участник
+     * из очереди ожидания, а если очередь пуста - освобождается.
+     * Должен выполняться в транзакции
+     *
+     * @param eventId идентификатор мероприятия
+     * @param userId идентификатор пользователя
+     * @return состояние удаленного участника или null, если пользователь не участвует в мероприятии
+     */
+    MemberStatus leave(long eventId, long userId);
+
+    /**
+     * Перевести участников из очереди ожидания в принятые на свободные места мероприятия в порядке очереди,
+     * например после увеличения максимального количества участников.
+     * Должен выполняться в транзакции
+     *
+     * @param eventId идентификатор мероприятия
+     * @return количество принятых участников
+     */
+    int promoteWaiting(long eventId);
+
+    /**
+     * Позиция участника в очереди ожидания мероприятия, начиная с 1
+     *
+     * @param eventId идентификатор мероприятия
+     * @param queueNumber номер участника в очереди
+     */
+    int getWaitlistPosition(long eventId, long queueNumber);
+}
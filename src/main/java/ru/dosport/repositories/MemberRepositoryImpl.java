@@ -0,0 +1,150 @@
+package ru.dosport.repositories;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.dosport.entities.EventMember;
+import ru.dosport.entities.MemberStatus;
+
+import java.util.List;
+
+/**
+ * Реализация вступления в мероприятие и выхода из него без чтения перед записью:
+ * решение о свободном месте принимает сам UPDATE строки мероприятия, удерживая ее блокировку до конца транзакции.
+ * Выход и увеличение числа мест блокируют ту же строку, поэтому вступления, выходы и изменения мероприятия
+ * выполняются по очереди, и каждый участник из очереди ожидания переводится в принятые ровно один раз
+ */
+@Log4j2
+@RequiredArgsConstructor
+public class MemberRepositoryImpl implements MemberRepositoryCustom {
+
+    // Количество попыток, если свободное место освобождается между занятием места и постановкой в очередь
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final String TAKE_PLACE = "UPDATE events SET members_count = members_count + 1 " +
+            "WHERE id = :eventId AND (max_members IS NULL OR members_count < max_members)";
+
+    private static final String ENQUEUE = "UPDATE events SET waitlist_counter = waitlist_counter + 1 " +
+            "WHERE id = :eventId AND max_members IS NOT NULL AND members_count >= max_members " +
+            "RETURNING waitlist_counter";
+
+    private static final String INSERT = "INSERT INTO event_member (id, event_id, user_id, status, member_status, queue_number) " +
+            "VALUES (nextval('event_member_id_seq'), :eventId, :userId, :status, :memberStatus, :queueNumber) " +
+            "ON CONFLICT (event_id, user_id) DO NOTHING RETURNING id";
+
+    private static final String LOCK_EVENT = "SELECT id FROM events WHERE id = :eventId FOR UPDATE";
+
+    // Свободные места мероприятия под блокировкой его строки, null - количество участников не ограничено
+    private static final String LOCK_FREE_PLACES = "SELECT max_members - members_count FROM events " +
+            "WHERE id = :eventId FOR UPDATE";
+
+    private static final String DELETE = "DELETE FROM event_member WHERE event_id = :eventId AND user_id = :userId " +
+            "RETURNING member_status";
+
+    // Первый в очереди находится по индексу event_member_waitlist_idx без сортировки списка участников
+    private static final String PROMOTE = "UPDATE event_member SET member_status = 'ACCEPTED', queue_number = NULL " +
+            "WHERE id = (SELECT id FROM event_member WHERE event_id = :eventId AND member_status = 'WAITING' " +
+            "ORDER BY queue_number LIMIT 1) RETURNING user_id";
+
+    private static final String RELEASE_PLACE = "UPDATE events SET members_count = members_count - 1 " +
+            "WHERE id = :eventId";
+
+    private static final String TAKE_PLACES = "UPDATE events SET members_count = members_count + :count " +
+            "WHERE id = :eventId";
+
+    private static final String WAITLIST_POSITION = "SELECT count(*) FROM event_member " +
+            "WHERE event_id = :eventId AND member_status = 'WAITING' AND queue_number <= :queueNumber";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public EventMember join(long eventId, long userId, String status) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("eventId", eventId)
+                .addValue("userId", userId)
+                .addValue("status", status);
+        MemberStatus memberStatus = null;
+        Long queueNumber = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && memberStatus == null; attempt++) {
+            if (jdbcTemplate.update(TAKE_PLACE, parameters) == 1) {
+                memberStatus = MemberStatus.ACCEPTED;
+            } else {
+                List<Long> numbers = jdbcTemplate.queryForList(ENQUEUE, parameters, Long.class);
+                if (!numbers.isEmpty()) {
+                    memberStatus = MemberStatus.WAITING;
+                    queueNumber = numbers.get(0);
+                }
+            }
+        }
+        if (memberStatus == null) {
+            throw new IllegalStateException("Не удалось добавить участника мероприятия " + eventId);
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(INSERT, parameters
+                .addValue("memberStatus", memberStatus.name())
+                .addValue("queueNumber", queueNumber), Long.class);
+        if (ids.isEmpty()) {
+            return null;
+        }
+        return EventMember.builder()
+                .id(ids.get(0))
+                .userId(userId)
+                .status(status)
+                .memberStatus(memberStatus)
+                .queueNumber(queueNumber)
+                .build();
+    }
+
+    @Override
+    public MemberStatus leave(long eventId, long userId) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("eventId", eventId).addValue("userId", userId);
+        // Блокировка мероприятия берется раньше строк участников, в том же порядке, что и при вступлении
+        if (jdbcTemplate.queryForList(LOCK_EVENT, parameters, Long.class).isEmpty()) {
+            return null;
+        }
+        List<String> statuses = jdbcTemplate.queryForList(DELETE, parameters, String.class);
+        if (statuses.isEmpty()) {
+            return null;
+        }
+        MemberStatus memberStatus = MemberStatus.valueOf(statuses.get(0));
+        if (memberStatus == MemberStatus.ACCEPTED) {
+            List<Long> promoted = jdbcTemplate.queryForList(PROMOTE, parameters, Long.class);
+            if (promoted.isEmpty()) {
+                jdbcTemplate.update(RELEASE_PLACE, parameters);
+            } else {
+                log.debug("Пользователь " + promoted.get(0) + " переведен из очереди в участники мероприятия " + eventId);
+            }
+        }
+        return memberStatus;
+    }
+
+    @Override
+    public int promoteWaiting(long eventId) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("eventId", eventId);
+        List<Integer> places = jdbcTemplate.queryForList(LOCK_FREE_PLACES, parameters, Integer.class);
+        if (places.isEmpty()) {
+            return 0;
+        }
+        Integer freePlaces = places.get(0);
+        int promoted = 0;
+        while (freePlaces == null || promoted < freePlaces) {
+            List<Long> users = jdbcTemplate.queryForList(PROMOTE, parameters, Long.class);
+            if (users.isEmpty()) {
+                break;
+            }
+            log.debug("Пользователь " + users.get(0) + " переведен из очереди в участники мероприятия " + eventId);
+            promoted++;
+        }
+        if (promoted > 0) {
+            jdbcTemplate.update(TAKE_PLACES, parameters.addValue("count", promoted));
+        }
+        return promoted;
+    }
+
+    @Override
+    public int getWaitlistPosition(long eventId, long queueNumber) {
+        Integer position = jdbcTemplate.queryForObject(WAITLIST_POSITION, new MapSqlParameterSource("eventId", eventId)
+                .addValue("queueNumber", queueNumber), Integer.class);
+        return position == null ? 0 : position;
+    }
+}
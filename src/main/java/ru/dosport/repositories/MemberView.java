@@ -0,0 +1,36 @@
+package ru.dosport.repositories;
+
+import ru.dosport.entities.Gender;
+import ru.dosport.entities.MemberStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Участник мероприятия вместе с данными пользователя, выбранными одним запросом
+ */
+public interface MemberView {
+
+    Long getEventId();
+
+    String getStatus();
+
+    Long getUserId();
+
+    String getUsername();
+
+    LocalDate getBirthdayDate();
+
+    boolean isHideBirthdayDate();
+
+    String getFirstName();
+
+    String getLastName();
+
+    Gender getGender();
+
+    String getInfo();
+
+    String getPhotoLink();
+
+    MemberStatus getMemberStatus();
+}
@@ -0,0 +1,50 @@
+package ru.dosport.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.dosport.entities.RefreshToken;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Репозиторий токенов обновления
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Найти сеанс по идентификатору из токена
+     */
+    Optional<RefreshToken> findByHandle(String handle);
+
+    /**
+     * Заменить хэш токена, если он не был заменен другим запросом, сохранив прежний хэш
+     *
+     * @return количество измененных записей, 0 или 1
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.previousTokenHash = t.tokenHash, t.tokenHash = :newHash, "
+            + "t.expiresAt = :expiresAt WHERE t.id = :id AND t.tokenHash = :oldHash")
+    int rotate(@Param("id") Long id, @Param("oldHash") byte[] oldHash,
+               @Param("newHash") byte[] newHash, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Удалить истекшие токены пользователя
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.userId = :userId AND t.expiresAt < :now")
+    int deleteExpiredByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Удалить все токены пользователя, завершив все его сеансы
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+}
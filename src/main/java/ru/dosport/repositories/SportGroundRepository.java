@@ -1,9 +1,13 @@
 package ru.dosport.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.dosport.entities.SportGround;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -12,5 +16,114 @@ import java.util.List;
 @Repository
 public interface SportGroundRepository extends JpaRepository<SportGround, Long> {
 
+    // Расстояние в км от площадки до точки (:latitude, :longitude) по формуле гаверсинусов
+    String DISTANCE = "6371.0 * 2 * asin(least(1.0, sqrt(power(sin(radians(g.location[0] - :latitude) / 2), 2) " +
+            "+ cos(radians(:latitude)) * cos(radians(g.location[0])) * power(sin(radians(g.location[1] - :longitude) / 2), 2))))";
+
+    // Краткие данные площадки с количеством мероприятий и отзывов, столбцы соответствуют SportGroundSummary
+    String SUMMARY = "SELECT g.id AS \"id\", g.title AS \"title\", g.city AS \"city\", g.address AS \"address\", " +
+            "g.location[0] AS \"latitude\", g.location[1] AS \"longitude\", " +
+            "(SELECT string_agg(CAST(s.sport_type_id AS varchar), ',') FROM sportgrounds_sport_type s " +
+            "WHERE s.sportground_id = g.id) AS \"sportTypeIds\", " +
+            "(SELECT count(*) FROM events e WHERE e.sportground_id = g.id) AS \"eventCount\", " +
+            "(SELECT count(*) FROM sportground_comments c WHERE c.sportground_id = g.id) AS \"commentCount\" " +
+            "FROM sportgrounds g ";
+
+    // Площадка подходит для вида спорта :sportTypeId, отрицательное значение - любой вид спорта
+    String HAS_SPORT_TYPE = "(:sportTypeId < 0 OR EXISTS (SELECT 1 FROM sportgrounds_sport_type s " +
+            "WHERE s.sportground_id = g.id AND s.sport_type_id = :sportTypeId))";
+
+    // Площадка попадает в прямоугольную область, условие использует пространственный индекс
+    String IN_BOX = "g.location <@ box(point(:minLatitude, :minLongitude), point(:maxLatitude, :maxLongitude))";
+
+    // Площадки в радиусе от точки, отсортированные по расстоянию, измеряется SportGroundSqlBenchmark
+    String NEARBY = SUMMARY + "WHERE " + IN_BOX + " AND " + DISTANCE + " <= :radius " +
+            "AND " + HAS_SPORT_TYPE + " ORDER BY " + DISTANCE + ", g.id LIMIT :limit OFFSET :offset";
+
     List<SportGround> findAllByCity(String city);
+
+    /**
+     * Найти существующие адреса площадок из списка
+     */
+    @Query("SELECT g.address FROM SportGround g WHERE g.address IN :addresses")
+    List<String> findAllAddressByAddressIn(@Param("addresses") Collection<String> addresses);
+
+    /**
+     * Найти краткие данные страницы площадок с идентификатором больше :afterId
+     */
+    @Query(value = SUMMARY + "WHERE g.id > :afterId ORDER BY g.id LIMIT :limit", nativeQuery = true)
+    List<SportGroundSummary> findAllSummaryAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Найти краткие данные страницы площадок города с идентификатором больше :afterId
+     */
+    @Query(value = SUMMARY + "WHERE g.city = :city AND g.id > :afterId ORDER BY g.id LIMIT :limit", nativeQuery = true)
+    List<SportGroundSummary> findAllSummaryByCityAfter(@Param("city") String city, @Param("afterId") long afterId,
+                                                       @Param("limit") int limit);
+
+    /**
+     * Найти краткие данные площадок по списку идентификаторов
+     */
+    @Query(value = SUMMARY + "WHERE g.id IN (:ids)", nativeQuery = true)
+    List<SportGroundSummary> findAllSummaryByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Найти площадки в радиусе от точки, отсортированные по расстоянию.
+     * Прямоугольник, описанный вокруг окружности, отбирает кандидатов по индексу.
+     */
+    @Query(value = NEARBY, nativeQuery = true)
+    List<SportGroundSummary> findAllNearby(@Param("latitude") double latitude, @Param("longitude") double longitude,
+                                           @Param("radius") double radius, @Param("sportTypeId") short sportTypeId,
+                                           @Param("minLatitude") double minLatitude, @Param("minLongitude") double minLongitude,
+                                           @Param("maxLatitude") double maxLatitude, @Param("maxLongitude") double maxLongitude,
+                                           @Param("limit") int limit, @Param("offset") int offset);
+
+    /**
+     * Найти свободные в интервале [:from, :to) площадки в радиусе от точки, отсортированные по расстоянию.
+     * Занятость проверяется по индексу ограничения пересечений мероприятий на площадке,
+     * площадки, занятые повторяющимися мероприятиями, передаются в :excludedIds массивом PostgreSQL, например {1,2}
+     */
+    @Query(value = SUMMARY + "WHERE " + IN_BOX + " AND " + DISTANCE + " <= :radius AND " + HAS_SPORT_TYPE + " " +
+            "AND g.id <> ALL(CAST(:excludedIds AS BIGINT[])) AND NOT EXISTS (SELECT 1 FROM events e WHERE e.sportground_id = g.id " +
+            "AND event_period(e.date, e.start_time, e.end_time) && tsrange(CAST(:from AS TIMESTAMP), CAST(:to AS TIMESTAMP))) " +
+            "ORDER BY " + DISTANCE + ", g.id LIMIT :limit", nativeQuery = true)
+    List<SportGroundSummary> findAllAvailableNearby(@Param("latitude") double latitude, @Param("longitude") double longitude,
+                                                    @Param("radius") double radius, @Param("sportTypeId") short sportTypeId,
+                                                    @Param("minLatitude") double minLatitude, @Param("minLongitude") double minLongitude,
+                                                    @Param("maxLatitude") double maxLatitude, @Param("maxLongitude") double maxLongitude,
+                                                    @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                                    @Param("excludedIds") String excludedIds, @Param("limit") int limit);
+
+    /**
+     * Найти площадки в прямоугольной области, отсортированные по удаленности от точки
+     */
+    @Query(value = SUMMARY + "WHERE " + IN_BOX + " " +
+            "ORDER BY g.location <-> point(:latitude, :longitude), g.id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<SportGroundSummary> findAllInBox(@Param("minLatitude") double minLatitude,
+                                          @Param("minLongitude") double minLongitude,
+                                          @Param("maxLatitude") double maxLatitude,
+                                          @Param("maxLongitude") double maxLongitude,
+                                          @Param("latitude") double latitude, @Param("longitude") double longitude,
+                                          @Param("limit") int limit, @Param("offset") int offset);
+
+    /**
+     * Найти ближайшие к точке площадки по индексу, порядок приблизительный
+     */
+    @Query(value = SUMMARY + "WHERE " + HAS_SPORT_TYPE + " " +
+            "ORDER BY g.location <-> point(:latitude, :longitude), g.id LIMIT :limit", nativeQuery = true)
+    List<SportGroundSummary> findAllNearest(@Param("latitude") double latitude, @Param("longitude") double longitude,
+                                            @Param("sportTypeId") short sportTypeId, @Param("limit") int limit);
+
+    /**
+     * Найти координаты всех площадок: идентификатор, широта, долгота
+     */
+    @Query(value = "SELECT g.id, g.location[0] AS latitude, g.location[1] AS longitude FROM sportgrounds g",
+            nativeQuery = true)
+    List<Object[]> findAllLocations();
+
+    /**
+     * Найти виды спорта всех площадок: идентификатор площадки, идентификатор вида спорта
+     */
+    @Query(value = "SELECT s.sportground_id, s.sport_type_id FROM sportgrounds_sport_type s", nativeQuery = true)
+    List<Object[]> findAllSportTypeIds();
 }
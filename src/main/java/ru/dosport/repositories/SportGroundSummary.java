@@ -0,0 +1,26 @@
+package ru.dosport.repositories;
+
+/**
+ * Краткое представление Спортивной площадки для списков и карты
+ */
+public interface SportGroundSummary {
+
+    Long getId();
+
+    String getTitle();
+
+    String getCity();
+
+    String getAddress();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    // Идентификаторы видов спорта через запятую
+    String getSportTypeIds();
+
+    Long getEventCount();
+
+    Long getCommentCount();
+}
@@ -0,0 +1,23 @@
+package ru.dosport.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.dosport.entities.UserCalendar;
+import ru.dosport.entities.UserCalendarKey;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Репозиторий календарей пользователей
+ */
+@Repository
+public interface UserCalendarRepository extends JpaRepository<UserCalendar, UserCalendarKey>,
+        UserCalendarRepositoryCustom {
+
+    /**
+     * Найти мероприятия пользователя за период, просматривая диапазон первичного ключа (user_id, date)
+     */
+    List<UserCalendar> findAllByUserIdAndDateBetweenOrderByDateAscStartTimeAscEventIdAsc(
+            long userId, LocalDate from, LocalDate to);
+}
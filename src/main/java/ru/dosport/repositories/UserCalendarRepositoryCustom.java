@@ -0,0 +1,39 @@
+package ru.dosport.repositories;
+
+/**
+ * Синхронизация календарей пользователей с мероприятиями и их участниками.
+ * Каждое изменение календаря увеличивает номер изменения подписки пользователя, если она есть.
+ * Методы выполняются в транзакции, изменяющей мероприятие или участника
+ */
+public interface UserCalendarRepositoryCustom {
+
+    /**
+     * Добавить мероприятие в календарь вступившего участника
+     */
+    void addEvent(long eventId, long userId);
+
+    /**
+     * Удалить мероприятие из календаря ушедшего участника
+     */
+    void removeEvent(long eventId, long userId);
+
+    /**
+     * Обновить состояние участников в календарях, например после перевода из очереди ожидания
+     */
+    void refreshMemberStatus(long eventId);
+
+    /**
+     * Обновить дату, время, вид спорта и площадку мероприятия в календарях всех участников
+     */
+    void refreshEvent(long eventId);
+
+    /**
+     * Отметить изменение календаря пользователя, например создание мероприятия организатором
+     */
+    void touchUser(long userId);
+
+    /**
+     * Отметить изменение календарей организатора и участников мероприятия, например перед его удалением
+     */
+    void touchEvent(long eventId);
+}
@@ -0,0 +1,79 @@
+package ru.dosport.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Реализация синхронизации календарей: каждая операция - один запрос по индексу мероприятия или ключу записи,
+ * номера изменений подписок увеличиваются в том же запросе либо следующим запросом по первичному ключу
+ */
+@RequiredArgsConstructor
+public class UserCalendarRepositoryImpl implements UserCalendarRepositoryCustom {
+
+    private static final String TOUCH = "UPDATE calendar_feeds SET version = version + 1, updated_at = now() ";
+
+    private static final String ADD_EVENT = "INSERT INTO user_calendar (user_id, date, event_id, start_time, " +
+            "end_time, sport_type_id, sportground_id, member_status) " +
+            "SELECT m.user_id, e.date, e.id, e.start_time, e.end_time, e.sport_type_id, e.sportground_id, " +
+            "m.member_status FROM event_member m JOIN events e ON e.id = m.event_id " +
+            "WHERE m.event_id = :eventId AND m.user_id = :userId " +
+            "ON CONFLICT (user_id, date, event_id) DO UPDATE SET member_status = EXCLUDED.member_status";
+
+    private static final String REMOVE_EVENT = "DELETE FROM user_calendar WHERE event_id = :eventId AND user_id = :userId";
+
+    private static final String REFRESH_MEMBER_STATUS = "WITH changed AS (" +
+            "UPDATE user_calendar c SET member_status = m.member_status " +
+            "FROM event_member m WHERE c.event_id = :eventId AND m.event_id = c.event_id AND m.user_id = c.user_id " +
+            "AND m.member_status <> c.member_status RETURNING c.user_id) " +
+            TOUCH + "WHERE user_id IN (SELECT user_id FROM changed)";
+
+    private static final String REFRESH_EVENT = "WITH changed AS (" +
+            "UPDATE user_calendar c SET date = e.date, start_time = e.start_time, " +
+            "end_time = e.end_time, sport_type_id = e.sport_type_id, sportground_id = e.sportground_id " +
+            "FROM events e WHERE c.event_id = :eventId AND e.id = c.event_id RETURNING c.user_id) " +
+            TOUCH + "WHERE user_id IN (SELECT user_id FROM changed " +
+            "UNION SELECT organizer_user_id FROM events WHERE id = :eventId)";
+
+    private static final String TOUCH_USER = TOUCH + "WHERE user_id = :userId";
+
+    private static final String TOUCH_EVENT = TOUCH + "WHERE user_id IN (" +
+            "SELECT user_id FROM user_calendar WHERE event_id = :eventId " +
+            "UNION SELECT organizer_user_id FROM events WHERE id = :eventId)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addEvent(long eventId, long userId) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("eventId", eventId).addValue("userId", userId);
+        jdbcTemplate.update(ADD_EVENT, parameters);
+        jdbcTemplate.update(TOUCH_USER, parameters);
+    }
+
+    @Override
+    public void removeEvent(long eventId, long userId) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("eventId", eventId).addValue("userId", userId);
+        jdbcTemplate.update(REMOVE_EVENT, parameters);
+        jdbcTemplate.update(TOUCH_USER, parameters);
+    }
+
+    @Override
+    public void refreshMemberStatus(long eventId) {
+        jdbcTemplate.update(REFRESH_MEMBER_STATUS, new MapSqlParameterSource("eventId", eventId));
+    }
+
+    @Override
+    public void refreshEvent(long eventId) {
+        jdbcTemplate.update(REFRESH_EVENT, new MapSqlParameterSource("eventId", eventId));
+    }
+
+    @Override
+    public void touchUser(long userId) {
+        jdbcTemplate.update(TOUCH_USER, new MapSqlParameterSource("userId", userId));
+    }
+
+    @Override
+    public void touchEvent(long eventId) {
+        jdbcTemplate.update(TOUCH_EVENT, new MapSqlParameterSource("eventId", eventId));
+    }
+}
@@ -1,9 +1,13 @@
 package ru.dosport.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.dosport.entities.User;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -28,4 +32,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Найти пользователя по его логину
      */
     Optional<User> findByUsername(String username);
+
+    /**
+     * Найти идентификаторы пользователей по признаку активности
+     */
+    @Query("SELECT u.id FROM User u WHERE u.enabled = :enabled")
+    List<Long> findAllIdByEnabled(@Param("enabled") boolean enabled);
+
+    /**
+     * Найти страницу пользователей с идентификатором больше указанного
+     */
+    List<User> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
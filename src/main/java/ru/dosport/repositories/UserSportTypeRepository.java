@@ -15,7 +15,7 @@ import java.util.Optional;
  * Репозиторий видов спорта юзера
  */
 @Repository
-public interface UserSportTypeRepository extends JpaRepository<UserSportType, Short> {
+public interface UserSportTypeRepository extends JpaRepository<UserSportType, Short>, UserSportTypeRepositoryCustom {
 
     /*
      * СОГЛАШЕНИЕ О НАИМЕНОВАНИИ МЕТОДОВ РЕПОЗИТОРИЕВ
@@ -0,0 +1,20 @@
+package ru.dosport.repositories;
+
+import ru.dosport.entities.UserSportType;
+
+import java.util.List;
+
+/**
+ * Пакетные операции со спортивными навыками пользователя
+ */
+public interface UserSportTypeRepositoryCustom {
+
+    /**
+     * Заменить навыки пользователя переданным списком:
+     * добавить или изменить навыки одним пакетом INSERT ... ON CONFLICT и удалить отсутствующие в списке
+     *
+     * @param userId идентификатор пользователя
+     * @param sportTypes новый список навыков пользователя
+     */
+    void replaceAllByUserId(long userId, List<UserSportType> sportTypes);
+}
@@ -0,0 +1,44 @@
+package ru.dosport.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import ru.dosport.entities.UserSportType;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Реализация пакетных операций со спортивными навыками пользователя
+ */
+@RequiredArgsConstructor
+public class UserSportTypeRepositoryImpl implements UserSportTypeRepositoryCustom {
+
+    private static final String UPSERT = "INSERT INTO user_sports (user_id, sport_type_id, level) " +
+            "VALUES (:userId, :sportTypeId, :level) " +
+            "ON CONFLICT (user_id, sport_type_id) DO UPDATE SET level = EXCLUDED.level";
+
+    private static final String DELETE_ALL = "DELETE FROM user_sports WHERE user_id = :userId";
+
+    private static final String DELETE_OTHERS = DELETE_ALL + " AND sport_type_id NOT IN (:sportTypeIds)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void replaceAllByUserId(long userId, List<UserSportType> sportTypes) {
+        if (sportTypes.isEmpty()) {
+            jdbcTemplate.update(DELETE_ALL, new MapSqlParameterSource("userId", userId));
+            return;
+        }
+        jdbcTemplate.update(DELETE_OTHERS, new MapSqlParameterSource("userId", userId)
+                .addValue("sportTypeIds", sportTypes.stream()
+                        .map(UserSportType::getSportTypeId)
+                        .collect(Collectors.toList())));
+        jdbcTemplate.batchUpdate(UPSERT, sportTypes.stream()
+                .map(sportType -> new MapSqlParameterSource("userId", userId)
+                        .addValue("sportTypeId", sportType.getSportTypeId())
+                        .addValue("level", sportType.getLevel()))
+                .toArray(SqlParameterSource[]::new));
+    }
+}
@@ -0,0 +1,130 @@
+package ru.dosport.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограниченный по размеру кэш проверенных JWT токенов.
+ * Ключом служит SHA-256 хэш токена, запись живет не дольше ttl и не дольше срока действия самого токена.
+ */
+@Component
+public class JwtClaimsCache {
+
+    // Максимальное количество токенов в кэше
+    @Value("${jwt.cache.max-size:10000}")
+    private int maxSize;
+
+    // Время жизни записи в кэше, 5 минут
+    @Value("${jwt.cache.ttl:300000}")
+    private long ttlInMilliseconds;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Очистку выполняет один поток, остальные добавляют записи, не дожидаясь ее окончания
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    // Счетчики для оценки эффективности кэша
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Получить ключ кэша для токена
+     */
+    public String getKey(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Получить данные токена из кэша
+     *
+     * @return данные токена или null, если токена нет в кэше либо запись устарела
+     */
+    public Claims get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.claims;
+    }
+
+    /**
+     * Поместить данные проверенного токена в кэш
+     */
+    public void put(String key, Claims claims) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlInMilliseconds;
+        if (claims.getExpiration() != null) {
+            expiresAt = Math.min(expiresAt, claims.getExpiration().getTime());
+        }
+        if (entries.size() >= maxSize && evicting.compareAndSet(false, true)) {
+            try {
+                evict(now);
+            } finally {
+                evicting.set(false);
+            }
+        }
+        entries.put(key, new Entry(claims, expiresAt));
+    }
+
+    /**
+     * Получить статистику использования кэша
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("size", (long) entries.size());
+        statistics.put("maxSize", (long) maxSize);
+        statistics.put("hits", hits.get());
+        statistics.put("misses", misses.get());
+        statistics.put("evictions", evictions.get());
+        return statistics;
+    }
+
+    /**
+     * Удалить устаревшие записи, а если их недостаточно - освободить четверть кэша.
+     * Пока идет очистка, размер кэша может превысить maxSize на число одновременно добавленных записей
+     */
+    private void evict(long now) {
+        entries.entrySet().removeIf(e -> e.getValue().expiresAt <= now);
+        Iterator<String> iterator = entries.keySet().iterator();
+        int target = maxSize - maxSize / 4;
+        while (entries.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+
+        private final Claims claims;
+
+        private final long expiresAt;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.dosport.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+import ru.dosport.repositories.UserRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реестр отозванных JWT токенов.
+ * Хранит в памяти для каждого пользователя момент, раньше которого выданные ему токены недействительны,
+ * что позволяет проверять токены без обращения к базе данных.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class JwtRevocationRegistry {
+
+    // Для заблокированного пользователя недействительны все токены
+    private static final long ALL_TOKENS = Long.MAX_VALUE;
+
+    // Необходимые репозитории
+    private final UserRepository userRepository;
+
+    // id пользователя -> момент времени в мс, раньше которого выданные токены недействительны
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    protected void init() {
+        List<Long> disabledIds = userRepository.findAllIdByEnabled(false);
+        disabledIds.forEach(this::revokeUser);
+        log.debug("Загружено заблокированных пользователей: " + disabledIds.size());
+    }
+
+    /**
+     * Отозвать все токены пользователя (пользователь заблокирован или удален)
+     */
+    public void revokeUser(Long userId) {
+        revokedBefore.put(userId, ALL_TOKENS);
+    }
+
+    /**
+     * Отозвать токены пользователя, выданные раньше указанного момента времени
+     */
+    public void revokeTokensIssuedBefore(Long userId, long timeMillis) {
+        // Время выдачи токена хранится с точностью до секунды
+        revokedBefore.merge(userId, timeMillis / 1000 * 1000, Math::max);
+    }
+
+    /**
+     * Проверить, отозван ли токен пользователя, выданный в указанный момент времени
+     */
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        Long before = revokedBefore.get(userId);
+        return before != null && (issuedAt == null || issuedAt.getTime() < before);
+    }
+}
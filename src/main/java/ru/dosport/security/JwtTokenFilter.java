@@ -1,6 +1,7 @@
 package ru.dosport.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
@@ -31,8 +32,9 @@ public class JwtTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String token = jwtTokenProvider.resolveToken(req);
-            if (token != null && jwtTokenProvider.validateToken(token)) {
-                Authentication auth = jwtTokenProvider.getAuthentication(token);
+            if (token != null) {
+                Claims claims = jwtTokenProvider.resolveClaims(token);
+                Authentication auth = jwtTokenProvider.getAuthentication(claims);
 
                 if (auth != null) {
                     SecurityContextHolder.getContext().setAuthentication(auth);
@@ -15,8 +15,10 @@ import javax.servlet.http.HttpServletRequest;
 import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static ru.dosport.helpers.Messages.JWT_TOKEN_NOT_VALID;
+import static ru.dosport.helpers.Messages.JWT_TOKEN_REVOKED;
 
 /**
  * Утилитный класс провайдера JWT токенов, генерирующий и валидирующий JWT токены.
@@ -27,18 +29,32 @@ public class JwtTokenProvider {
     @Value("lknjdlkgnfdkjngjkrdnjkgdj")
     private String secret;
 
-    // Токен действителен 10 дней
-    @Value("864000000")
+    // Токен доступа действителен 15 минут, затем заменяется по токену обновления
+    @Value("${jwt.access-token.validity:900000}")
     private long validityInMilliseconds;
 
+    // Формировать пользователя из данных токена, не обращаясь к базе данных
+    @Value("${jwt.authentication.stateless:true}")
+    private boolean statelessAuthentication;
+
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private JwtRevocationRegistry revocationRegistry;
+
+    @Autowired
+    private JwtClaimsCache claimsCache;
+
     @PostConstruct
     protected void init() {
         secret = Base64.getEncoder().encodeToString(secret.getBytes());
     }
 
+    public long getValidityInMilliseconds() {
+        return validityInMilliseconds;
+    }
+
     public String createToken(String username, Long id, List<String> roles) {
 
         Claims claims = Jwts.claims().setSubject(username);
@@ -57,12 +73,50 @@ public class JwtTokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
-        UserDetails userDetails = this.userDetailsService.loadUserByUsername(getUsername(token));
+        return getAuthentication(resolveClaims(token));
+    }
+
+    public Authentication getAuthentication(Claims claims) {
+        UserDetails userDetails = statelessAuthentication ?
+                getJwtUser(claims) : this.userDetailsService.loadUserByUsername(claims.getSubject());
         return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
     }
 
     public String getUsername(String token) {
-        return Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody().getSubject();
+        return resolveClaims(token).getSubject();
+    }
+
+    /**
+     * Проверить токен и получить его данные, повторно используя результат проверки из кэша
+     */
+    public Claims resolveClaims(String token) {
+        String key = claimsCache.getKey(token);
+        Claims claims = claimsCache.get(key);
+        if (claims == null) {
+            claims = parseClaims(token);
+            claimsCache.put(key, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Сформировать пользователя из данных проверенного токена
+     */
+    private JwtUser getJwtUser(Claims claims) {
+        Long id = ((Number) claims.get("id")).longValue();
+        if (revocationRegistry.isRevoked(id, claims.getIssuedAt())) {
+            throw new JwtAuthenticationException(JWT_TOKEN_REVOKED);
+        }
+        List<?> roles = claims.get("roles", List.class);
+
+        JwtUser user = new JwtUser();
+        user.setId(id);
+        user.setUsername(claims.getSubject());
+        user.setEnabled(true);
+        user.setAuthorities(roles.stream()
+                .map(role -> new JwtRole(String.valueOf(role)))
+                .collect(Collectors.toList()));
+        return user;
     }
 
     public String resolveToken(HttpServletRequest req) {
@@ -74,9 +128,19 @@ public class JwtTokenProvider {
     }
 
     public boolean validateToken(String token) {
+        return resolveClaims(token) != null;
+    }
+
+    /**
+     * Проверить подпись и срок действия токена
+     */
+    private Claims parseClaims(String token) {
         try {
-            Jws<Claims> claims = Jwts.parser().setSigningKey(secret).parseClaimsJws(token);
-            return !claims.getBody().getExpiration().before(new Date());
+            Claims claims = Jwts.parser().setSigningKey(secret).parseClaimsJws(token).getBody();
+            if (claims.getExpiration() == null || claims.getExpiration().before(new Date())) {
+                throw new JwtAuthenticationException(JWT_TOKEN_NOT_VALID);
+            }
+            return claims;
         } catch (JwtException | IllegalArgumentException e) {
             throw new JwtAuthenticationException(JWT_TOKEN_NOT_VALID);
         }
@@ -0,0 +1,84 @@
+package ru.dosport.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.dosport.exceptions.TooManyRequestsException;
+import ru.dosport.helpers.RateLimiter;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static ru.dosport.helpers.Messages.LOGIN_RATE_LIMITED;
+
+/**
+ * Ограничение частоты попыток входа по логину и по IP адресу клиента.
+ * Проверка выполняется до проверки пароля, поэтому перебор паролей не нагружает пул хэширования.
+ * Логины задает клиент, поэтому при заполненной таблице логинов новые логины ограничиваются только по адресу,
+ * а при заполненной таблице адресов попытки с новых адресов учитываются в общей корзине.
+ * Адреса IPv6 учитываются по подсетям /64: клиенту обычно выделяется вся подсеть, и смена адреса в ней
+ * не дает новых попыток.
+ */
+@Component
+public class LoginRateLimiter {
+
+    // Максимальное количество ключей каждого ограничителя в памяти
+    private static final int MAX_KEYS = 100_000;
+
+    // Длина префикса подсети IPv6, байт
+    private static final int IPV6_PREFIX_LENGTH = 8;
+
+    private final RateLimiter usernameLimiter;
+
+    private final RateLimiter addressLimiter;
+
+    public LoginRateLimiter(@Value("${login.rate-limit.username.capacity:5}") int usernameCapacity,
+                            @Value("${login.rate-limit.username.refill-period:60000}") long usernameRefillPeriod,
+                            @Value("${login.rate-limit.address.capacity:20}") int addressCapacity,
+                            @Value("${login.rate-limit.address.refill-period:3000}") long addressRefillPeriod) {
+        usernameLimiter = new RateLimiter(usernameCapacity, TimeUnit.MILLISECONDS.toNanos(usernameRefillPeriod),
+                MAX_KEYS, false, System::nanoTime);
+        addressLimiter = new RateLimiter(addressCapacity, TimeUnit.MILLISECONDS.toNanos(addressRefillPeriod),
+                MAX_KEYS, true, System::nanoTime);
+    }
+
+    /**
+     * Учесть попытку входа
+     *
+     * @throws TooManyRequestsException если превышено количество попыток для логина или IP адреса
+     */
+    public void check(String username, String address) {
+        long wait = addressLimiter.tryAcquire(getAddressKey(address));
+        if (wait == 0 && username != null) {
+            wait = usernameLimiter.tryAcquire(username.toLowerCase(Locale.ROOT));
+        }
+        if (wait > 0) {
+            long retryAfterSeconds = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            throw new TooManyRequestsException(String.format(LOGIN_RATE_LIMITED, retryAfterSeconds), retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Ключ адреса клиента: адрес IPv4 или подсеть /64 адреса IPv6
+     */
+    static String getAddressKey(String address) {
+        if (address == null || address.indexOf(':') < 0) {
+            return address;
+        }
+        try {
+            // Адрес задан числами, поэтому разбирается без обращения к DNS
+            InetAddress inetAddress = InetAddress.getByName(address);
+            if (!(inetAddress instanceof Inet6Address)) {
+                return inetAddress.getHostAddress();
+            }
+            byte[] prefix = Arrays.copyOf(inetAddress.getAddress(), 16);
+            Arrays.fill(prefix, IPV6_PREFIX_LENGTH, prefix.length, (byte) 0);
+            return InetAddress.getByAddress(prefix).getHostAddress() + "/64";
+        } catch (UnknownHostException e) {
+            return address;
+        }
+    }
+}
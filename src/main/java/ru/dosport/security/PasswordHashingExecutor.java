@@ -0,0 +1,125 @@
+package ru.dosport.security;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.dosport.exceptions.TooManyRequestsException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static ru.dosport.helpers.Messages.PASSWORD_HASHING_OVERLOADED;
+
+/**
+ * Ограниченный пул потоков для вычисления и проверки хэшей паролей.
+ * BCrypt намеренно нагружает процессор, поэтому количество одновременных вычислений ограничено числом потоков,
+ * а длина очереди - заданным размером. При заполненной очереди запрос сразу отклоняется с ошибкой 429,
+ * и всплеск входов не занимает процессор и потоки сервера, обслуживающие остальные запросы.
+ * Вход, регистрация и смена пароля выполняются в пуле целиком и возвращают асинхронный ответ,
+ * поэтому поток сервера не ожидает окончания хэширования.
+ */
+@Log4j2
+@Component
+public class PasswordHashingExecutor {
+
+    // Количество потоков, по умолчанию - число процессоров
+    @Value("${password.hashing.threads:0}")
+    private int threads;
+
+    // Максимальное количество ожидающих задач
+    @Value("${password.hashing.queue-capacity:100}")
+    private int queueCapacity;
+
+    // Через сколько секунд клиенту следует повторить отклоненный запрос
+    @Value("${password.hashing.retry-after:1}")
+    private long retryAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    // Счетчики для оценки загрузки пула
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong totalHashNanos = new AtomicLong();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    @PostConstruct
+    protected void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.debug("Пул хэширования паролей: потоков " + poolSize + ", размер очереди " + queueCapacity);
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Выполнить задачу, вычисляющую или проверяющую хэш пароля, в пуле.
+     * Исключение задачи завершает результат без обертки CompletionException, поэтому асинхронный ответ
+     * контроллера обрабатывается так же, как исключение, выброшенное в потоке сервера
+     *
+     * @throws TooManyRequestsException если очередь пула заполнена
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    result.complete(task.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    long hashNanos = System.nanoTime() - startedAt;
+                    totalWaitNanos.addAndGet(startedAt - submittedAt);
+                    totalHashNanos.addAndGet(hashNanos);
+                    maxHashNanos.accumulateAndGet(hashNanos, Math::max);
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new TooManyRequestsException(PASSWORD_HASHING_OVERLOADED, retryAfterSeconds);
+        }
+        return result;
+    }
+
+    /**
+     * Получить статистику загрузки пула, время указано в мс
+     */
+    public Map<String, Long> getStatistics() {
+        long count = completed.get();
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("threads", (long) executor.getMaximumPoolSize());
+        statistics.put("active", (long) executor.getActiveCount());
+        statistics.put("queueSize", (long) executor.getQueue().size());
+        statistics.put("queueCapacity", (long) queueCapacity);
+        statistics.put("completed", count);
+        statistics.put("rejected", rejected.get());
+        statistics.put("averageWaitTime", count > 0 ? TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / count) : 0);
+        statistics.put("averageHashTime", count > 0 ? TimeUnit.NANOSECONDS.toMillis(totalHashNanos.get() / count) : 0);
+        statistics.put("maxHashTime", TimeUnit.NANOSECONDS.toMillis(maxHashNanos.get()));
+        return statistics;
+    }
+}
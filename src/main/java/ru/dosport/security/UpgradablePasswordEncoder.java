@@ -0,0 +1,72 @@
+package ru.dosport.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Кодировщик паролей, сохраняющий в хэше алгоритм и сложность хэширования: {bcrypt}$2a$10$...
+ * Хэши без префикса алгоритма, созданные до его появления, проверяются как BCrypt.
+ * Хэш, созданный другим алгоритмом или с другой сложностью, считается устаревшим и после успешного входа
+ * пересчитывается с текущими настройками, поэтому сложность можно менять без принудительной смены паролей.
+ */
+public class UpgradablePasswordEncoder implements PasswordEncoder {
+
+    // Алгоритм, которым вычисляются новые хэши
+    public static final String ENCODING_ID = "bcrypt";
+
+    private static final String PREFIX = "{" + ENCODING_ID + "}";
+
+    // Сложность хэширования BCrypt: количество раундов равно 2 в этой степени
+    private final int strength;
+
+    private final DelegatingPasswordEncoder delegate;
+
+    public UpgradablePasswordEncoder(int strength) {
+        this.strength = strength;
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(ENCODING_ID, new BCryptPasswordEncoder(strength));
+        delegate = new DelegatingPasswordEncoder(ENCODING_ID, encoders);
+        // Сложность BCrypt хранится в самом хэше, поэтому старые хэши проверяются с любой сложностью
+        delegate.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        if (!encodedPassword.startsWith(PREFIX)) {
+            return true;
+        }
+        return getStrength(encodedPassword.substring(PREFIX.length())) != strength;
+    }
+
+    /**
+     * Получить сложность из хэша BCrypt вида $2a$10$..., или -1, если хэш имеет другой формат
+     */
+    static int getStrength(String bcryptHash) {
+        if (bcryptHash.length() < 7 || bcryptHash.charAt(0) != '$' || bcryptHash.charAt(3) != '$'
+                || bcryptHash.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(bcryptHash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
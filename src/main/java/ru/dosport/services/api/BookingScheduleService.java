@@ -0,0 +1,74 @@
+package ru.dosport.services.api;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.dosport.dto.TimeSlotDto;
+import ru.dosport.entities.Event;
+import ru.dosport.entities.EventSeries;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Сервис Расписания занятости площадок.
+ */
+public interface BookingScheduleService {
+
+    /**
+     * Проверить, что площадка свободна во время мероприятия, включая несохраненные мероприятия серий.
+     * Окончательно пересечения проверяет ограничение базы данных при сохранении мероприятия
+     *
+     * @param event мероприятие с площадкой, датой и временем проведения
+     * @throws ru.dosport.exceptions.DataBadRequestException если площадка занята другим мероприятием
+     */
+    void checkAvailable(Event event);
+
+    /**
+     * Проверить, что площадка свободна во время мероприятий повторяющейся серии на горизонте проверки
+     *
+     * @param series серия с площадкой и правилом повторения
+     * @throws ru.dosport.exceptions.DataBadRequestException если площадка занята мероприятием или другой серией
+     */
+    void checkAvailable(EventSeries series);
+
+    /**
+     * Выдает условие, что площадка свободна в интервале [from, to), для проверки многих площадок.
+     * Занятые сериями площадки вычисляются заранее, а если расписание в памяти выключено,
+     * занятые мероприятиями площадки загружаются одним запросом
+     *
+     * @return условие по идентификатору площадки
+     */
+    Predicate<Long> getAvailability(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Выдает площадки, занятые в интервале [from, to) еще не сохраненными мероприятиями повторяющихся серий
+     */
+    Set<Long> getGroundIdsBookedBySeries(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Выдает свободные интервалы площадки за день, для текущего дня - начиная с текущего времени
+     *
+     * @param groundId идентификатор площадки
+     * @param date дата
+     * @param minutes минимальная длительность интервала, минут, или null для любой длительности
+     * @return список свободных интервалов, упорядоченных по времени
+     */
+    List<TimeSlotDto> getFreeSlots(Long groundId, LocalDate date, Integer minutes);
+
+    /**
+     * Добавить или перенести мероприятие в расписании после фиксации текущей транзакции
+     */
+    void put(Event event);
+
+    /**
+     * Удалить мероприятие из расписания после фиксации текущей транзакции
+     */
+    void remove(Long eventId);
+
+    /**
+     * Проверить, нарушено ли сохранением ограничение пересечения мероприятий на площадке
+     */
+    boolean isBookingConflict(DataIntegrityViolationException e);
+}
@@ -0,0 +1,45 @@
+package ru.dosport.services.api;
+
+import org.springframework.security.core.Authentication;
+import ru.dosport.entities.CalendarFeed;
+
+import java.io.OutputStream;
+
+/**
+ * Сервис подписки на календарь пользователя в формате iCalendar.
+ * Календарь содержит мероприятия, в которых пользователь участвует или которые организует.
+ */
+public interface CalendarFeedService {
+
+    /**
+     * Создает подписку пользователя или заменяет ее адрес новым, прежний адрес перестает действовать
+     *
+     * @param authentication данные авторизации пользователя
+     * @return секретная часть адреса подписки
+     */
+    String createFeed(Authentication authentication);
+
+    /**
+     * Удаляет подписку пользователя
+     *
+     * @param authentication данные авторизации пользователя
+     * @return true, если подписка была
+     */
+    boolean deleteFeed(Authentication authentication);
+
+    /**
+     * Выдает подписку по секретной части адреса одним поиском по индексу, не читая календарь
+     *
+     * @param token секретная часть адреса подписки
+     * @return подписка с номером и временем последнего изменения календаря
+     */
+    CalendarFeed getFeed(String token);
+
+    /**
+     * Записывает календарь пользователя в поток, читая мероприятия курсором базы данных
+     *
+     * @param feed подписка пользователя
+     * @param output поток ответа
+     */
+    void writeFeed(CalendarFeed feed, OutputStream output);
+}
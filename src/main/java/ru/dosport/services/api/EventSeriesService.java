@@ -0,0 +1,64 @@
+package ru.dosport.services.api;
+
+import org.springframework.security.core.Authentication;
+import ru.dosport.dto.EventOccurrenceDto;
+import ru.dosport.dto.EventSeriesDto;
+import ru.dosport.dto.EventSeriesRequest;
+import ru.dosport.dto.MemberDto;
+import ru.dosport.dto.MemberRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Сервис Повторяющихся мероприятий
+ */
+public interface EventSeriesService {
+
+    /**
+     * Возвращает повторяющееся мероприятие по его идентификатору
+     *
+     * @param id идентификатор серии
+     * @return dto серии
+     */
+    EventSeriesDto getDtoById(Long id);
+
+    /**
+     * Создать повторяющееся мероприятие
+     *
+     * @param request запрос, содержащий правило повторения и данные мероприятий
+     * @param authentication данные авторизации организатора
+     * @return новая серия, сохраненная в репозитории
+     */
+    EventSeriesDto save(EventSeriesRequest request, Authentication authentication);
+
+    /**
+     * Удалить повторяющееся мероприятие. Мероприятия серии с участниками остаются отдельными мероприятиями
+     *
+     * @param id идентификатор серии
+     * @param authentication данные авторизации организатора или администратора
+     * @return true, если серия удалена
+     */
+    boolean deleteById(Long id, Authentication authentication);
+
+    /**
+     * Выдает мероприятия повторяющихся серий за период, упорядоченные по дате и времени начала.
+     * Даты вычисляются по правилам серий, сохраненные мероприятия дополняют их идентификатором и участниками
+     *
+     * @param from начало периода или null для текущей даты
+     * @param to окончание периода включительно или null для периода по умолчанию
+     * @param sportGroundId площадка или null для всех площадок
+     * @return список мероприятий серий
+     */
+    List<EventOccurrenceDto> getOccurrences(LocalDate from, LocalDate to, Long sportGroundId);
+
+    /**
+     * Добавить участника в мероприятие серии на дату, сохранив мероприятие, если участников еще не было
+     *
+     * @param seriesId идентификатор серии
+     * @param date дата мероприятия серии
+     * @param request запрос с данными участника
+     * @return dto участника
+     */
+    MemberDto createOccurrenceMember(Long seriesId, LocalDate date, MemberRequest request);
+}
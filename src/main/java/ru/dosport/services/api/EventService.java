@@ -3,6 +3,8 @@ package ru.dosport.services.api;
 import org.springframework.security.core.Authentication;
 import ru.dosport.dto.EventDto;
 import ru.dosport.dto.EventRequest;
+import ru.dosport.dto.EventSearchRequest;
+import ru.dosport.dto.KeysetPage;
 import ru.dosport.dto.MemberDto;
 import ru.dosport.dto.MemberRequest;
 
@@ -37,11 +39,23 @@ public interface EventService {
     EventDto getDtoById(Long id);
 
     /**
-     * Возвращает все мероприятия
+     * Возвращает страницу мероприятий, упорядоченных по дате
      *
-     * @return список dto мероприятий
+     * @param cursor курсор страницы или null для первой страницы
+     * @param size размер страницы или null для размера по умолчанию
+     * @return страница dto мероприятий
      */
-    List<EventDto> getAllDto();
+    KeysetPage<EventDto> getAllDto(String cursor, Integer size);
+
+    /**
+     * Найти страницу мероприятий по параметрам поиска, упорядоченных по дате
+     *
+     * @param request параметры поиска
+     * @param cursor курсор страницы или null для первой страницы
+     * @param size размер страницы или null для размера по умолчанию
+     * @return страница dto мероприятий
+     */
+    KeysetPage<EventDto> search(EventSearchRequest request, String cursor, Integer size);
 
     /**
      * Создать новое мероприятие
@@ -52,7 +66,9 @@ public interface EventService {
     EventDto save(EventRequest eventRequest, Authentication authentication);
 
     /**
-     * Изменить данные мероприятия по его id
+     * Изменить данные мероприятия по его id.
+     * Данные заменяются целиком: пустое максимальное количество участников снимает ограничение,
+     * и вся очередь ожидания переводится в участники
      *
      * @param eventDto мероприятие с измененными данными
      * @param eventId индекс мероприятия
@@ -76,10 +92,20 @@ public interface EventService {
     List<MemberDto> getAllMembers(Long eventId);
 
     /**
-     * Добавить участника мероприятия
+     * Добавить участника мероприятия, а если свободных мест нет - поставить в очередь ожидания
      * @param eventId идентификатор мероприятия
      * @param request запрос, содержищий участника, идентификатор мероприятия, статус участника
      * @return dto участника
      */
     MemberDto createEventMember(Long eventId, MemberRequest request);
+
+    /**
+     * Удалить участника мероприятия, освободившееся место занимает первый из очереди ожидания.
+     * Удалить участника может сам участник, организатор мероприятия или администратор
+     * @param eventId идентификатор мероприятия
+     * @param userId идентификатор пользователя
+     * @param authentication данные авторизации
+     * @return true, если участник удален
+     */
+    boolean deleteEventMember(Long eventId, Long userId, Authentication authentication);
 }
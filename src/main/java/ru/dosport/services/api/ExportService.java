@@ -0,0 +1,28 @@
+package ru.dosport.services.api;
+
+import ru.dosport.helpers.ExportFormat;
+
+import java.io.OutputStream;
+
+/**
+ * Сервис выгрузки данных для аналитики.
+ * Записи читаются курсором базы данных порциями и сразу пишутся в поток, не накапливаясь в памяти.
+ */
+public interface ExportService {
+
+    /**
+     * Выгрузить все мероприятия
+     *
+     * @param format формат выгрузки
+     * @param output поток ответа
+     */
+    void exportEvents(ExportFormat format, OutputStream output);
+
+    /**
+     * Выгрузить все площадки
+     *
+     * @param format формат выгрузки
+     * @param output поток ответа
+     */
+    void exportSportGrounds(ExportFormat format, OutputStream output);
+}
@@ -0,0 +1,26 @@
+package ru.dosport.services.api;
+
+import ru.dosport.dto.TokenResponse;
+import ru.dosport.security.JwtUser;
+
+/**
+ * Сервис выдачи токенов доступа и токенов обновления.
+ */
+public interface RefreshTokenService {
+
+    /**
+     * Выдает токен доступа и токен обновления для нового сеанса пользователя
+     *
+     * @param user пользователь, прошедший аутентификацию
+     * @return токены авторизации
+     */
+    TokenResponse issue(JwtUser user);
+
+    /**
+     * Выдает новый токен доступа, заменяя токен обновления новым
+     *
+     * @param refreshToken действующий токен обновления
+     * @return токены авторизации
+     */
+    TokenResponse refresh(String refreshToken);
+}
@@ -0,0 +1,31 @@
+package ru.dosport.services.api;
+
+import ru.dosport.dto.SportGroundImportReport;
+
+import java.io.InputStream;
+
+/**
+ * Сервис импорта Спортивных площадок из открытых данных
+ */
+public interface SportGroundImportService {
+
+    /**
+     * Импортирует площадки из CSV файла, читая его потоком.
+     * Первая строка - заголовок со столбцами city, address, title, latitude, longitude
+     * и необязательным sport_types (названия видов спорта через ";").
+     *
+     * @param input содержимое файла в кодировке UTF-8
+     * @return результат импорта
+     */
+    SportGroundImportReport importCsv(InputStream input);
+
+    /**
+     * Импортирует площадки из GeoJSON FeatureCollection, читая его потоком.
+     * Геометрия объекта - Point [долгота, широта], свойства city, address, title
+     * и необязательное sportTypes (массив названий видов спорта).
+     *
+     * @param input содержимое файла
+     * @return результат импорта
+     */
+    SportGroundImportReport importGeoJson(InputStream input);
+}
@@ -1,9 +1,13 @@
 package ru.dosport.services.api;
 
+import ru.dosport.dto.KeysetPage;
 import ru.dosport.dto.SportGroundDto;
 import ru.dosport.dto.SportGroundRequest;
+import ru.dosport.dto.SportGroundSummaryDto;
 import ru.dosport.entities.SportGround;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 /**
@@ -31,6 +35,15 @@ public interface SportGroundService {
      */
     List<SportGroundDto> getAllDto(String city);
 
+    /**
+     * Возвращает страницу кратких данных площадок города одним запросом, без мероприятий и отзывов
+     * @param city город или null для всех площадок
+     * @param cursor курсор страницы или null для первой страницы
+     * @param size размер страницы или null для размера по умолчанию
+     * @return страница кратких dto площадок
+     */
+    KeysetPage<SportGroundSummaryDto> getAllSummaryDto(String city, String cursor, Integer size);
+
     /**
      * Возращает площадки из списка индетификаторов
      * @param idList список идентификаторов площадок
@@ -38,6 +51,62 @@ public interface SportGroundService {
      */
     List<SportGroundDto> getAllDtoById(List<Long> idList);
 
+    /**
+     * Возвращает площадки в радиусе от точки, отсортированные по расстоянию
+     * @param latitude широта точки поиска
+     * @param longitude долгота точки поиска
+     * @param radius радиус поиска, км
+     * @param sportTypeId идентификатор вида спорта или null, если вид спорта не важен
+     * @param page номер страницы
+     * @param size размер страницы
+     * @return список кратких dto площадок с расстоянием до точки поиска
+     */
+    List<SportGroundSummaryDto> getAllSummaryDtoNearby(Double latitude, Double longitude, Double radius,
+                                                       Short sportTypeId, Integer page, Integer size);
+
+    /**
+     * Возвращает ближайшие к точке площадки, отсортированные по расстоянию
+     * @param latitude широта точки поиска
+     * @param longitude долгота точки поиска
+     * @param sportTypeId идентификатор вида спорта или null, если вид спорта не важен
+     * @param count количество площадок
+     * @return список кратких dto площадок с расстоянием до точки поиска
+     */
+    List<SportGroundSummaryDto> getAllSummaryDtoNearest(Double latitude, Double longitude, Short sportTypeId,
+                                                        Integer count);
+
+    /**
+     * Возвращает площадки в радиусе от точки, свободные в заданное время, отсортированные по расстоянию
+     * @param latitude широта точки поиска
+     * @param longitude долгота точки поиска
+     * @param radius радиус поиска, км
+     * @param sportTypeId идентификатор вида спорта или null, если вид спорта не важен
+     * @param date дата
+     * @param startTime время начала
+     * @param endTime время завершения или null для часового интервала
+     * @param count количество площадок
+     * @return список кратких dto площадок с расстоянием до точки поиска
+     */
+    List<SportGroundSummaryDto> getAllSummaryDtoAvailable(Double latitude, Double longitude, Double radius,
+                                                          Short sportTypeId, LocalDate date, LocalTime startTime,
+                                                          LocalTime endTime, Integer count);
+
+    /**
+     * Возвращает площадки в прямоугольной области карты, отсортированные по удаленности от точки
+     * @param minLatitude минимальная широта области
+     * @param minLongitude минимальная долгота области
+     * @param maxLatitude максимальная широта области
+     * @param maxLongitude максимальная долгота области
+     * @param latitude широта точки, по умолчанию центр области
+     * @param longitude долгота точки, по умолчанию центр области
+     * @param page номер страницы
+     * @param size размер страницы
+     * @return список кратких dto площадок с расстоянием до точки
+     */
+    List<SportGroundSummaryDto> getAllSummaryDtoInArea(Double minLatitude, Double minLongitude,
+                                                       Double maxLatitude, Double maxLongitude,
+                                                       Double latitude, Double longitude, Integer page, Integer size);
+
     /**
      * Возвращает площадку по идентификатору
      * @param id идентификатор площадки
@@ -51,4 +120,18 @@ public interface SportGroundService {
      * @return dto новой площадки
      */
     SportGroundDto create(SportGroundRequest request);
+
+    /**
+     * Создаёт список площадок одной транзакцией с пакетной вставкой
+     * @param requests запросы на создание площадок, не больше MAX_BATCH_SIZE
+     * @return список dto новых площадок
+     */
+    List<SportGroundDto> createAll(List<SportGroundRequest> requests);
+
+    /**
+     * Создаёт площадки из проверенного пакета одной транзакцией, пропуская площадки с уже существующим адресом
+     * @param requests запросы на создание площадок с уникальными адресами и идентификаторами видов спорта
+     * @return количество созданных площадок
+     */
+    int createAllSkippingExisting(List<SportGroundRequest> requests);
 }
@@ -1,10 +1,9 @@
 package ru.dosport.services.api;
 
+import ru.dosport.dto.KeysetPage;
 import ru.dosport.dto.SportTypeDto;
 import ru.dosport.entities.SportType;
 
-import java.util.List;
-
 /**
  * Сервис Видов спорта.
  */
@@ -19,17 +18,26 @@ public interface SportTypeService {
     SportTypeDto getSportTypeDtoById(Short id);
 
     /**
-     * Выдает список всех видов спорта
+     * Выдает страницу видов спорта
+     *
+     * @param cursor курсор страницы или null для первой страницы
+     * @param size размер страницы или null для размера по умолчанию
+     * @return страница видов спорта
+     */
+    KeysetPage<SportTypeDto> getAllSportTypeDto(String cursor, Integer size);
+
+    /**
+     * Выдает версию справочника видов спорта, меняющуюся при изменении его содержимого
      *
-     * @return список видов спорта
+     * @return версия справочника
      */
-    List<SportTypeDto> getAllSportTypeDto();
+    String getVersion();
 
     /**
      * Выдаёт вид спорта по его названию
      *
      * @param title название вида спорта
-     * @return dto вид спорта
+     * @return новая копия сущности вида спорта, не связанная с контекстом сохранения
      */
     SportType getSportTypeByTitle(String title);
 
@@ -0,0 +1,23 @@
+package ru.dosport.services.api;
+
+import org.springframework.security.core.Authentication;
+import ru.dosport.dto.CalendarEventDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Сервис Календаря пользователя.
+ */
+public interface UserCalendarService {
+
+    /**
+     * Выдает мероприятия пользователя за период, упорядоченные по дате и времени начала
+     *
+     * @param authentication данные авторизации пользователя
+     * @param from начало периода или null для текущей даты
+     * @param to окончание периода включительно или null для периода по умолчанию
+     * @return список мероприятий календаря
+     */
+    List<CalendarEventDto> getCalendar(Authentication authentication, LocalDate from, LocalDate to);
+}
@@ -1,6 +1,7 @@
 package ru.dosport.services.api;
 
 import org.springframework.security.core.Authentication;
+import ru.dosport.dto.KeysetPage;
 import ru.dosport.dto.PasswordRequest;
 import ru.dosport.dto.UserDto;
 import ru.dosport.dto.UserRequest;
@@ -68,11 +69,13 @@ public interface UserService {
     Long getIdByAuthentication(Authentication authentication);
 
     /**
-     * Найти всех пользователей
+     * Найти страницу пользователей, упорядоченных по идентификатору
      *
-     * @return список пользователей
+     * @param cursor курсор страницы или null для первой страницы
+     * @param size размер страницы или null для размера по умолчанию
+     * @return страница пользователей
      */
-    List<UserDto> getAllDto();
+    KeysetPage<UserDto> getAllDto(String cursor, Integer size);
 
     /**
      * Проверить существование пользователя
@@ -81,7 +84,8 @@ public interface UserService {
     boolean existsById(Long id);
 
     /**
-     * Создать нового пользователя
+     * Создать нового пользователя.
+     * Хэш пароля вычисляется в вызывающем потоке, поэтому вызов выполняется в пуле хэширования паролей
      *
      * @param userRequest запрос с данными пользователя
      * @return новый пользователь, сохраненный в репозитории
@@ -97,7 +101,8 @@ public interface UserService {
     UserDto update(UserDto userDto, Authentication authentication);
 
     /**
-     * Изменить пароль пользователя
+     * Изменить пароль пользователя.
+     * Пароль проверяется и хэшируется в вызывающем потоке, поэтому вызов выполняется в пуле хэширования паролей
      *
      * @param passwordRequest данные для изменения пароля
      * @param authentication данные авторизации
@@ -29,9 +29,10 @@ public interface UserSportTypeService {
     List<UserSportTypeDto> getAllDtoByUserId(Authentication authentication);
 
     /**
-     * Создает новый список навыков пользователя по id, если его нет
+     * Заменяет список навыков пользователя одной транзакцией: навыки из списка добавляются или изменяются,
+     * остальные удаляются
      *
-     * @return список навыков пользователя по id
+     * @return новый список навыков пользователя
      */
     List<UserSportTypeDto> updateByUserId(List<UserSportTypeDto> dtoList, Authentication authentication);
 
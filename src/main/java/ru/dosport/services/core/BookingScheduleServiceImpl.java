@@ -0,0 +1,301 @@
+package ru.dosport.services.core;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.dosport.dto.TimeSlotDto;
+import ru.dosport.entities.Event;
+import ru.dosport.entities.EventSeries;
+import ru.dosport.exceptions.DataBadRequestException;
+import ru.dosport.exceptions.DataNotFoundException;
+import ru.dosport.helpers.BookingSchedule;
+import ru.dosport.helpers.Recurrence;
+import ru.dosport.repositories.EventRepository;
+import ru.dosport.repositories.EventSeriesRepository;
+import ru.dosport.repositories.SportGroundRepository;
+import ru.dosport.services.api.BookingScheduleService;
+
+import javax.annotation.PostConstruct;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static ru.dosport.helpers.Messages.*;
+
+/**
+ * Реализация сервиса расписания занятости площадок.
+ * Расписание предстоящих мероприятий хранится в памяти и изменяется после фиксации транзакций,
+ * поэтому проверка перед сохранением не обращается к базе данных. Одновременные бронирования
+ * одного времени разрешает ограничение events_sportground_period_excl.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class BookingScheduleServiceImpl implements BookingScheduleService {
+
+    // Код ошибки PostgreSQL при нарушении ограничения исключения
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    // Максимальная длительность свободного интервала в запросе, минут
+    private static final int MAX_SLOT_MINUTES = 24 * 60;
+
+    // Хранить расписание в памяти вместо запросов к базе данных
+    @Value("${events.schedule.enabled:true}")
+    private boolean scheduleEnabled;
+
+    // Горизонт проверки занятости площадки мероприятиями новой серии, дней
+    @Value("${events.series.booking-horizon-days:366}")
+    private int seriesHorizonDays;
+
+    // Репозитории
+    private final EventRepository eventRepository;
+    private final EventSeriesRepository seriesRepository;
+    private final SportGroundRepository groundRepository;
+
+    // Расписание в памяти, null если оно выключено
+    private BookingSchedule schedule;
+
+    /**
+     * Построить расписание по предстоящим мероприятиям, включая начавшиеся вчера и завершающиеся сегодня
+     */
+    @PostConstruct
+    protected void init() {
+        if (!scheduleEnabled) {
+            return;
+        }
+        BookingSchedule newSchedule = new BookingSchedule();
+        newSchedule.putAll(toBookings(eventRepository.findAllBookingsFrom(LocalDate.now().minusDays(1))));
+        newSchedule.removeEndedBefore(LocalDateTime.now());
+        schedule = newSchedule;
+        log.debug("Расписание площадок построено, мероприятий: " + schedule.size());
+    }
+
+    /**
+     * Удалить из расписания завершившиеся мероприятия
+     */
+    @Scheduled(cron = "${events.schedule.prune-cron:0 0 4 * * *}")
+    public void prune() {
+        if (schedule != null) {
+            schedule.removeEndedBefore(LocalDateTime.now());
+        }
+    }
+
+    @Override
+    public void checkAvailable(Event event) {
+        BookingSchedule.Booking booking = toBooking(event);
+        BookingSchedule.Booking conflict = getSchedule(booking.getGroundId(), booking.getStart(), booking.getEnd())
+                .findConflict(booking.getGroundId(), booking.getStart(), booking.getEnd(), event.getId());
+        if (conflict != null) {
+            throw new DataBadRequestException(String.format(SPORTGROUND_BOOKED_BY_EVENT,
+                    conflict.getEventId(), conflict.getStart(), conflict.getEnd()));
+        }
+        // Сохраненные мероприятия серий проверены по расписанию, несохраненные вычисляются по правилам серий
+        LocalDate from = event.getDate().minusDays(1);
+        LocalDate to = booking.getEnd().toLocalDate();
+        for (EventSeries series : seriesRepository.findAllActiveBySportGroundId(booking.getGroundId(), from, to)) {
+            if (series.getId().equals(event.getSeriesId())) {
+                continue;
+            }
+            for (LocalDate date : series.toRecurrence().expand(from, to)) {
+                BookingSchedule.Booking occurrence = toBooking(series, date);
+                if (occurrence.overlaps(booking) && !eventRepository.existsBySeriesIdAndDate(series.getId(), date)) {
+                    throw new DataBadRequestException(String.format(SPORTGROUND_BOOKED_BY_SERIES,
+                            series.getId(), occurrence.getStart(), occurrence.getEnd()));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void checkAvailable(EventSeries series) {
+        LocalDate to = LocalDate.now().plusDays(seriesHorizonDays);
+        if (series.getEndDate() != null && series.getEndDate().isBefore(to)) {
+            to = series.getEndDate();
+        }
+        List<LocalDate> dates = series.toRecurrence().expand(series.getStartDate(), to);
+        if (dates.isEmpty()) {
+            return;
+        }
+        long groundId = series.getSportGround().getId();
+        BookingSchedule groundSchedule = getSchedule(groundId, dates.get(0).atStartOfDay(),
+                to.plusDays(2).atStartOfDay());
+        List<EventSeries> others = seriesRepository.findAllActiveBySportGroundId(groundId,
+                dates.get(0).minusDays(1), to.plusDays(1));
+        others.removeIf(other -> other.getId().equals(series.getId()));
+        for (LocalDate date : dates) {
+            BookingSchedule.Booking occurrence = toBooking(series, date);
+            BookingSchedule.Booking conflict = groundSchedule.findConflict(groundId, occurrence.getStart(),
+                    occurrence.getEnd(), null);
+            if (conflict != null) {
+                throw new DataBadRequestException(String.format(SPORTGROUND_BOOKED_BY_EVENT,
+                        conflict.getEventId(), conflict.getStart(), conflict.getEnd()));
+            }
+            for (EventSeries other : others) {
+                Recurrence recurrence = other.toRecurrence();
+                // Мероприятие другой серии, начавшееся накануне, может продолжаться в этот день
+                for (LocalDate day = date.minusDays(1); !day.isAfter(occurrence.getEnd().toLocalDate());
+                     day = day.plusDays(1)) {
+                    BookingSchedule.Booking otherOccurrence = toBooking(other, day);
+                    if (recurrence.occursOn(day) && otherOccurrence.overlaps(occurrence)) {
+                        throw new DataBadRequestException(String.format(SPORTGROUND_BOOKED_BY_SERIES,
+                                other.getId(), otherOccurrence.getStart(), otherOccurrence.getEnd()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public Predicate<Long> getAvailability(LocalDateTime from, LocalDateTime to) {
+        Set<Long> bookedBySeries = getGroundIdsBookedBySeries(from, to);
+        if (schedule != null) {
+            BookingSchedule current = schedule;
+            return groundId -> !bookedBySeries.contains(groundId)
+                    && current.findConflict(groundId, from, to, null) == null;
+        }
+        // Мероприятие, пересекающее интервал, начинается не раньше чем за день до его начала
+        Set<Long> booked = eventRepository.findAllBookedGroundIds(from.toLocalDate().minusDays(1), to.toLocalDate(),
+                from, to).stream().map(Number::longValue).collect(Collectors.toSet());
+        return groundId -> !booked.contains(groundId) && !bookedBySeries.contains(groundId);
+    }
+
+    @Override
+    public Set<Long> getGroundIdsBookedBySeries(LocalDateTime from, LocalDateTime to) {
+        return findSeriesBookings(null, from, to).stream()
+                .map(BookingSchedule.Booking::getGroundId).collect(Collectors.toSet());
+    }
+
+    @Override
+    public List<TimeSlotDto> getFreeSlots(Long groundId, LocalDate date, Integer minutes) {
+        if (minutes != null && (minutes < 0 || minutes > MAX_SLOT_MINUTES)) {
+            throw new DataBadRequestException(String.format(INVALID_SLOT_DURATION, MAX_SLOT_MINUTES));
+        }
+        if (!groundRepository.existsById(groundId)) {
+            throw new DataNotFoundException(String.format(DATA_NOT_FOUND_BY_ID, groundId));
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime from = date.atStartOfDay().isBefore(now) ? now : date.atStartOfDay();
+        LocalDateTime to = date.plusDays(1).atStartOfDay();
+        if (!from.isBefore(to)) {
+            return Collections.emptyList();
+        }
+        Duration minDuration = Duration.ofMinutes(minutes == null ? 0 : minutes);
+        List<BookingSchedule.Booking> bookings = getSchedule(groundId, from, to).findOverlapping(groundId, from, to);
+        bookings.addAll(findSeriesBookings(groundId, from, to));
+        bookings.sort(Comparator.comparing(BookingSchedule.Booking::getStart));
+        return BookingSchedule.findFreeSlots(bookings, from, to, minDuration).stream()
+                .map(slot -> new TimeSlotDto(slot.getStart(), slot.getEnd()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void put(Event event) {
+        if (schedule != null) {
+            BookingSchedule.Booking booking = toBooking(event);
+            afterCommit(() -> schedule.put(booking));
+        }
+    }
+
+    @Override
+    public void remove(Long eventId) {
+        if (schedule != null) {
+            afterCommit(() -> schedule.remove(eventId));
+        }
+    }
+
+    @Override
+    public boolean isBookingConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Расписание площадки на интервал: из памяти или, если оно выключено, из базы данных
+     */
+    private BookingSchedule getSchedule(Long groundId, LocalDateTime from, LocalDateTime to) {
+        if (schedule != null) {
+            return schedule;
+        }
+        BookingSchedule groundSchedule = new BookingSchedule();
+        groundSchedule.putAll(toBookings(eventRepository.findAllBookings(groundId, from, to)));
+        return groundSchedule;
+    }
+
+    /**
+     * Мероприятия серий, пересекающиеся с интервалом [from, to), без учета того, сохранены ли они.
+     * Сохраненное мероприятие серии занимает площадку в то же время, поэтому повтор не меняет результат
+     *
+     * @param groundId площадка или null для всех площадок
+     */
+    private List<BookingSchedule.Booking> findSeriesBookings(Long groundId, LocalDateTime from, LocalDateTime to) {
+        LocalDate fromDate = from.toLocalDate().minusDays(1);
+        LocalDate toDate = to.toLocalDate();
+        List<EventSeries> seriesList = groundId == null ? seriesRepository.findAllActive(fromDate, toDate) :
+                seriesRepository.findAllActiveBySportGroundId(groundId, fromDate, toDate);
+        BookingSchedule.Booking interval = new BookingSchedule.Booking(Long.MIN_VALUE, 0, from, to);
+        List<BookingSchedule.Booking> bookings = new ArrayList<>();
+        for (EventSeries series : seriesList) {
+            for (LocalDate date : series.toRecurrence().expand(fromDate, toDate)) {
+                BookingSchedule.Booking occurrence = toBooking(series, date);
+                if (occurrence.overlaps(interval)) {
+                    bookings.add(occurrence);
+                }
+            }
+        }
+        return bookings;
+    }
+
+    /**
+     * Выполнить действие после фиксации текущей транзакции или сразу, если транзакции нет
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static BookingSchedule.Booking toBooking(Event event) {
+        return BookingSchedule.Booking.of(event.getId() == null ? Long.MIN_VALUE : event.getId(),
+                event.getSportGround().getId(), event.getDate(), event.getStartTime(), event.getEndTime());
+    }
+
+    private static BookingSchedule.Booking toBooking(EventSeries series, LocalDate date) {
+        return BookingSchedule.Booking.of(Long.MIN_VALUE, series.getSportGround().getId(), date,
+                series.getStartTime(), series.getEndTime());
+    }
+
+    private static List<BookingSchedule.Booking> toBookings(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> BookingSchedule.Booking.of(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                        ((Date) row[2]).toLocalDate(), ((Time) row[3]).toLocalTime(),
+                        row[4] == null ? null : ((Time) row[4]).toLocalTime()))
+                .collect(Collectors.toList());
+    }
+}
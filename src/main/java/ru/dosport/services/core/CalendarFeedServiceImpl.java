@@ -0,0 +1,170 @@
+package ru.dosport.services.core;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.dosport.entities.CalendarFeed;
+import ru.dosport.entities.MemberStatus;
+import ru.dosport.exceptions.DataNotFoundException;
+import ru.dosport.helpers.BookingSchedule;
+import ru.dosport.helpers.ICalendarWriter;
+import ru.dosport.repositories.CalendarFeedRepository;
+import ru.dosport.services.api.CalendarFeedService;
+import ru.dosport.services.api.UserService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.SecureRandom;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static ru.dosport.helpers.Messages.CALENDAR_FEED_NOT_FOUND;
+
+/**
+ * Реализация сервиса подписки на календарь.
+ * Мероприятия участника читаются из user_calendar, организуемые - из events по индексу организатора,
+ * обе выборки - курсором внутри транзакции только для чтения.
+ */
+@Service
+@RequiredArgsConstructor
+public class CalendarFeedServiceImpl implements CalendarFeedService {
+
+    // Длина секретной части адреса подписки, байт
+    private static final int TOKEN_LENGTH = 32;
+
+    private static final String PRODUCT_ID = "-//DoSport//Calendar//RU";
+
+    private static final String CALENDAR_NAME = "DoSport";
+
+    // Состояние в выборке для мероприятий, которые пользователь организует, но в которых не участвует
+    private static final String ORGANIZER = "ORGANIZER";
+
+    private static final String EVENTS = "SELECT c.event_id, c.date, c.start_time, c.end_time, c.member_status, " +
+            "t.title AS sport_type, g.title AS sportground, g.address " +
+            "FROM user_calendar c JOIN sport_types t ON t.id = c.sport_type_id " +
+            "JOIN sportgrounds g ON g.id = c.sportground_id " +
+            "WHERE c.user_id = ? AND c.date >= ? " +
+            "UNION ALL " +
+            "SELECT e.id, e.date, e.start_time, e.end_time, '" + ORGANIZER + "', " +
+            "t.title, g.title, g.address " +
+            "FROM events e JOIN sport_types t ON t.id = e.sport_type_id " +
+            "JOIN sportgrounds g ON g.id = e.sportground_id " +
+            "WHERE e.organizer_user_id = ? AND e.date >= ? AND NOT EXISTS " +
+            "(SELECT 1 FROM user_calendar c WHERE c.user_id = ? AND c.event_id = e.id)";
+
+    // Количество прошедших дней, мероприятия которых остаются в календаре
+    @Value("${calendar.feed.past-days:30}")
+    private int pastDays;
+
+    // Количество строк, читаемых из базы данных за одно обращение
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    // Необходимые репозитории
+    private final CalendarFeedRepository calendarFeedRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Сервисы
+    private final UserService userService;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Transactional
+    @Override
+    public String createFeed(Authentication authentication) {
+        Long userId = userService.getIdByAuthentication(authentication);
+        CalendarFeed feed = calendarFeedRepository.findById(userId).orElseGet(() -> {
+            CalendarFeed newFeed = new CalendarFeed();
+            newFeed.setUserId(userId);
+            return newFeed;
+        });
+        byte[] token = new byte[TOKEN_LENGTH];
+        random.nextBytes(token);
+        feed.setToken(Base64.getUrlEncoder().withoutPadding().encodeToString(token));
+        return calendarFeedRepository.save(feed).getToken();
+    }
+
+    @Transactional
+    @Override
+    public boolean deleteFeed(Authentication authentication) {
+        Long userId = userService.getIdByAuthentication(authentication);
+        if (!calendarFeedRepository.existsById(userId)) {
+            return false;
+        }
+        calendarFeedRepository.deleteById(userId);
+        return true;
+    }
+
+    @Override
+    public CalendarFeed getFeed(String token) {
+        return calendarFeedRepository.findByToken(token).orElseThrow(
+                () -> new DataNotFoundException(CALENDAR_FEED_NOT_FOUND));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void writeFeed(CalendarFeed feed, OutputStream output) {
+        ICalendarWriter writer = new ICalendarWriter(output);
+        Date from = Date.valueOf(LocalDate.now().minusDays(pastDays));
+        try {
+            writer.beginCalendar(PRODUCT_ID, CALENDAR_NAME);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EVENTS,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                statement.setLong(1, feed.getUserId());
+                statement.setDate(2, from);
+                statement.setLong(3, feed.getUserId());
+                statement.setDate(4, from);
+                statement.setLong(5, feed.getUserId());
+                return statement;
+            }, resultSet -> {
+                try {
+                    writeEvent(writer, resultSet, feed.getUpdatedAt());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.endCalendar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeEvent(ICalendarWriter writer, ResultSet resultSet, LocalDateTime updatedAt)
+            throws SQLException, IOException {
+        LocalDate date = resultSet.getDate("date").toLocalDate();
+        LocalDateTime start = date.atTime(resultSet.getTime("start_time").toLocalTime());
+        Time endTime = resultSet.getTime("end_time");
+        LocalDateTime end = BookingSchedule.getEnd(date, start.toLocalTime(),
+                endTime == null ? null : endTime.toLocalTime());
+        String memberStatus = resultSet.getString("member_status");
+        String address = resultSet.getString("address");
+
+        writer.property("BEGIN", "VEVENT");
+        writer.property("UID", "event-" + resultSet.getLong("event_id") + "@dosport.ru");
+        writer.utcDateTime("DTSTAMP", updatedAt);
+        writer.localDateTime("DTSTART", start);
+        writer.localDateTime("DTEND", end);
+        writer.text("SUMMARY", resultSet.getString("sport_type"));
+        writer.text("LOCATION", address == null ? resultSet.getString("sportground")
+                : resultSet.getString("sportground") + ", " + address);
+        if (MemberStatus.WAITING.name().equals(memberStatus)) {
+            writer.property("STATUS", "TENTATIVE");
+            writer.text("DESCRIPTION", MemberStatus.WAITING.getDescription());
+        } else {
+            writer.property("STATUS", "CONFIRMED");
+        }
+        writer.property("END", "VEVENT");
+    }
+}
@@ -0,0 +1,215 @@
+package ru.dosport.services.core;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import ru.dosport.dto.EventOccurrenceDto;
+import ru.dosport.dto.EventSeriesDto;
+import ru.dosport.dto.EventSeriesRequest;
+import ru.dosport.dto.MemberDto;
+import ru.dosport.dto.MemberRequest;
+import ru.dosport.entities.Event;
+import ru.dosport.entities.EventSeries;
+import ru.dosport.exceptions.DataBadRequestException;
+import ru.dosport.exceptions.DataNotFoundException;
+import ru.dosport.helpers.Messages;
+import ru.dosport.helpers.Recurrence;
+import ru.dosport.helpers.Roles;
+import ru.dosport.mappers.EventSeriesMapper;
+import ru.dosport.repositories.EventRepository;
+import ru.dosport.repositories.EventSeriesRepository;
+import ru.dosport.repositories.UserCalendarRepository;
+import ru.dosport.services.api.BookingScheduleService;
+import ru.dosport.services.api.EventSeriesService;
+import ru.dosport.services.api.EventService;
+import ru.dosport.services.api.SportGroundService;
+import ru.dosport.services.api.SportTypeService;
+import ru.dosport.services.api.UserService;
+
+import javax.transaction.Transactional;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static ru.dosport.helpers.Messages.*;
+
+/**
+ * Реализация сервиса повторяющихся мероприятий.
+ * Мероприятия серии вычисляются по правилу повторения при чтении, поэтому бессрочная серия занимает одну строку.
+ * В events мероприятие серии сохраняется, только когда в него вступает первый участник.
+ */
+@Service
+@RequiredArgsConstructor
+public class EventSeriesServiceImpl implements EventSeriesService {
+
+    // Период мероприятий серий по умолчанию и максимальный период, дней
+    private static final int DEFAULT_DAYS = 31;
+    private static final int MAX_DAYS = 92;
+
+    // Максимальный интервал повторения, недель
+    private static final int MAX_INTERVAL_WEEKS = 52;
+
+    // Порядок мероприятий серий: по дате, времени начала и серии
+    private static final Comparator<EventOccurrenceDto> BY_DATE = Comparator
+            .comparing(EventOccurrenceDto::getDateEvent)
+            .thenComparing(EventOccurrenceDto::getStartTimeEvent)
+            .thenComparing(EventOccurrenceDto::getSeriesId);
+
+    // Необходимые мапперы
+    private final EventSeriesMapper seriesMapper;
+
+    // Необходимые репозитории
+    private final EventSeriesRepository seriesRepository;
+    private final EventRepository eventRepository;
+    private final UserCalendarRepository userCalendarRepository;
+
+    // Сервисы
+    private final EventService eventService;
+    private final UserService userService;
+    private final SportTypeService sportTypeService;
+    private final SportGroundService sportGroundService;
+    private final BookingScheduleService bookingScheduleService;
+
+    @Override
+    public EventSeriesDto getDtoById(Long id) {
+        return seriesMapper.mapEntityToDto(findById(id));
+    }
+
+    @Transactional
+    @Override
+    public EventSeriesDto save(EventSeriesRequest request, Authentication authentication) {
+        int intervalWeeks = request.getIntervalWeeks() == null ? 1 : request.getIntervalWeeks();
+        if (intervalWeeks < 1 || intervalWeeks > MAX_INTERVAL_WEEKS
+                || (request.getEndDate() != null && request.getEndDate().isBefore(request.getStartDate()))) {
+            throw new DataBadRequestException(String.format(INVALID_RECURRENCE, MAX_INTERVAL_WEEKS));
+        }
+        Set<DayOfWeek> daysOfWeek = request.getDaysOfWeek() == null || request.getDaysOfWeek().isEmpty() ?
+                EnumSet.of(request.getStartDate().getDayOfWeek()) : request.getDaysOfWeek();
+
+        EventSeries series = EventSeries.builder()
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate())
+                .startTime(request.getStartTime())
+                .endTime(request.getEndTime())
+                .intervalWeeks((short) intervalWeeks)
+                .daysOfWeek((short) Recurrence.toMask(daysOfWeek))
+                .maxMembers(request.getMaxMembers())
+                .sportType(sportTypeService.getSportTypeByTitle(request.getSportTypeTitle()))
+                .sportGround(sportGroundService.getById(request.getSportGroundId()))
+                .organizerId(userService.getIdByAuthentication(authentication))
+                .build();
+        bookingScheduleService.checkAvailable(series);
+        return seriesMapper.mapEntityToDto(seriesRepository.save(series));
+    }
+
+    @Transactional
+    @Override
+    public boolean deleteById(Long id, Authentication authentication) {
+        EventSeries series = findById(id);
+        if (!series.getOrganizerId().equals(userService.getIdByAuthentication(authentication))
+                && !Roles.hasAuthenticationRoleAdmin(authentication)) {
+            throw new AccessDeniedException(Messages.ACCESS_DENIED);
+        }
+        seriesRepository.delete(series);
+        return true;
+    }
+
+    @Override
+    public List<EventOccurrenceDto> getOccurrences(LocalDate from, LocalDate to, Long sportGroundId) {
+        if (from == null) {
+            from = LocalDate.now();
+        }
+        if (to == null) {
+            to = from.plusDays(DEFAULT_DAYS - 1);
+        }
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new DataBadRequestException(String.format(INVALID_OCCURRENCE_RANGE, MAX_DAYS));
+        }
+        List<EventSeries> seriesList = sportGroundId == null ? seriesRepository.findAllActive(from, to) :
+                seriesRepository.findAllActiveBySportGroundId(sportGroundId, from, to);
+        if (seriesList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Сохраненные мероприятия серий загружаются одним запросом по индексу (series_id, date)
+        Map<Long, Map<LocalDate, Event>> events = eventRepository.findAllBySeriesIdInAndDateBetween(
+                seriesList.stream().map(EventSeries::getId).collect(Collectors.toList()), from, to).stream()
+                .collect(Collectors.groupingBy(Event::getSeriesId,
+                        Collectors.toMap(Event::getDate, event -> event)));
+
+        List<EventOccurrenceDto> occurrences = new ArrayList<>();
+        for (EventSeries series : seriesList) {
+            Map<LocalDate, Event> seriesEvents = events.getOrDefault(series.getId(), Collections.emptyMap());
+            for (LocalDate date : series.toRecurrence().expand(from, to)) {
+                EventOccurrenceDto occurrence = seriesMapper.mapEntityToOccurrenceDto(series, date);
+                Event event = seriesEvents.get(date);
+                if (event != null) {
+                    occurrence.setEventId(event.getId());
+                    occurrence.setStartTimeEvent(event.getStartTime());
+                    occurrence.setEndTimeEvent(event.getEndTime());
+                    occurrence.setMaxMembers(event.getMaxMembers());
+                    occurrence.setMembersCount(event.getMembersCount());
+                }
+                occurrences.add(occurrence);
+            }
+        }
+        occurrences.sort(BY_DATE);
+        return occurrences;
+    }
+
+    @Transactional
+    @Override
+    public MemberDto createOccurrenceMember(Long seriesId, LocalDate date, MemberRequest request) {
+        EventSeries series = findById(seriesId);
+        if (date.isBefore(LocalDate.now()) || !series.toRecurrence().occursOn(date)) {
+            throw new DataNotFoundException(String.format(OCCURRENCE_NOT_FOUND, seriesId, date));
+        }
+        Long eventId = materialize(series, date);
+        request.setEvenId(eventId);
+        return eventService.createEventMember(eventId, request);
+    }
+
+    /**
+     * Сохранить мероприятие серии на дату, если оно еще не сохранено, и занять площадку в расписании
+     */
+    private Long materialize(EventSeries series, LocalDate date) {
+        boolean exists = eventRepository.existsBySeriesIdAndDate(series.getId(), date);
+        if (!exists) {
+            bookingScheduleService.checkAvailable(Event.builder()
+                    .date(date)
+                    .startTime(series.getStartTime())
+                    .endTime(series.getEndTime())
+                    .sportGround(series.getSportGround())
+                    .seriesId(series.getId())
+                    .build());
+        }
+        long eventId;
+        try {
+            eventId = seriesRepository.materialize(series.getId(), date);
+        } catch (DataIntegrityViolationException e) {
+            if (bookingScheduleService.isBookingConflict(e)) {
+                throw new DataBadRequestException(SPORTGROUND_BOOKED);
+            }
+            throw e;
+        }
+        if (!exists) {
+            eventRepository.findById(eventId).ifPresent(bookingScheduleService::put);
+            userCalendarRepository.touchUser(series.getOrganizerId());
+        }
+        return eventId;
+    }
+
+    private EventSeries findById(Long id) {
+        return seriesRepository.findById(id).orElseThrow(
+                () -> new DataNotFoundException(String.format(DATA_NOT_FOUND_BY_ID, id)));
+    }
+}
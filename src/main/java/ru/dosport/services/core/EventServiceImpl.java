@@ -1,29 +1,35 @@
 package ru.dosport.services.core;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import ru.dosport.dto.*;
 import ru.dosport.entities.Event;
 import ru.dosport.entities.EventMember;
+import ru.dosport.entities.MemberStatus;
 import ru.dosport.exceptions.DataBadRequestException;
 import ru.dosport.exceptions.DataNotFoundException;
 import ru.dosport.helpers.Messages;
+import ru.dosport.helpers.Pagination;
 import ru.dosport.helpers.Roles;
 import ru.dosport.mappers.EventMapper;
 import ru.dosport.mappers.EventMemberMapper;
 import ru.dosport.repositories.EventRepository;
 import ru.dosport.repositories.MemberRepository;
+import ru.dosport.repositories.UserCalendarRepository;
+import ru.dosport.services.api.BookingScheduleService;
 import ru.dosport.services.api.EventService;
 import ru.dosport.services.api.SportGroundService;
 import ru.dosport.services.api.SportTypeService;
 import ru.dosport.services.api.UserService;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static ru.dosport.helpers.Messages.DATA_NOT_FOUND_BY_ID;
 
@@ -41,11 +47,15 @@ public class EventServiceImpl implements EventService {
     // Необходимые репозитории
     private final EventRepository eventRepository;
     private final MemberRepository memberRepository;
+    private final UserCalendarRepository userCalendarRepository;
 
     // Сервисы
     private final UserService userService;
     private final SportTypeService sportTypeService;
     private final SportGroundService sportGroundService;
+    private final BookingScheduleService bookingScheduleService;
+
+    private final EntityManager entityManager;
 
     @Override
     public EventDto getDtoById(Long id) {
@@ -53,8 +63,34 @@ public class EventServiceImpl implements EventService {
     }
 
     @Override
-    public List<EventDto> getAllDto() {
-        return eventMapper.mapEntityToDto(eventRepository.findAll());
+    public KeysetPage<EventDto> getAllDto(String cursor, Integer size) {
+        int limit = Pagination.getLimit(size);
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        Event after = decodeCursor(cursor);
+        List<Event> events = after == null ?
+                eventRepository.findAllByOrderByDateAscIdAsc(pageRequest) :
+                eventRepository.findAllAfter(after.getDate(), after.getId(), pageRequest);
+        return toPage(events, limit);
+    }
+
+    @Override
+    public KeysetPage<EventDto> search(EventSearchRequest request, String cursor, Integer size) {
+        int limit = Pagination.getLimit(size);
+        if (request.getDateFrom() == null) {
+            request.setDateFrom(LocalDate.now());
+        }
+        if (request.getDateTo() != null && request.getDateFrom().isAfter(request.getDateTo())) {
+            throw new DataBadRequestException(Messages.INVALID_DATE_RANGE);
+        }
+        if (request.getTimeFrom() != null && request.getTimeTo() != null
+                && request.getTimeFrom().isAfter(request.getTimeTo())) {
+            throw new DataBadRequestException(Messages.INVALID_TIME_RANGE);
+        }
+        Event after = decodeCursor(cursor);
+        List<Event> events = after == null ?
+                eventRepository.search(request, null, null, limit + 1) :
+                eventRepository.search(request, after.getDate(), after.getId(), limit + 1);
+        return toPage(events, limit);
     }
 
     @Transactional
@@ -66,14 +102,19 @@ public class EventServiceImpl implements EventService {
                 .sportType(sportTypeService.getSportTypeByTitle(eventRequest.getSportTypeTitle()))
                 .sportGround(sportGroundService.getById(Long.valueOf(eventRequest.getSportGroundId())))
                 .organizerId(userService.getIdByAuthentication(authentication))
+                .maxMembers(eventRequest.getMaxMembers())
                 .build();
         if (eventRequest.getEndTimeEvent() != null) {
             event.setEndTime(eventRequest.getEndTimeEvent());
         }
 
-        return eventMapper.mapEntityToDto(eventRepository.save(event));
+        bookingScheduleService.checkAvailable(event);
+        event = saveBooking(event);
+        userCalendarRepository.touchUser(event.getOrganizerId());
+        return eventMapper.mapEntityToDto(event);
     }
 
+    @Transactional
     @Override
     public EventDto update(EventDto eventDto, Long eventId, Authentication authentication) {
         if (authentication != null) {
@@ -82,13 +123,32 @@ public class EventServiceImpl implements EventService {
             if (!event.getOrganizerId().equals(userService.getIdByAuthentication(authentication))) {
                 throw new AccessDeniedException("Пользователь не является организатором мероприятия");
             }
+            // Окончательно ограничение проверяет база данных, так как участники могут вступить после чтения
+            if (eventDto.getMaxMembers() != null
+                    && (eventDto.getMaxMembers() < 1 || eventDto.getMaxMembers() < event.getMembersCount())) {
+                throw new DataBadRequestException(Messages.INVALID_MAX_MEMBERS);
+            }
 
-            return eventMapper.mapEntityToDto(eventRepository.save(eventMapper.update(findById(eventId), eventDto)));
+            Integer oldMaxMembers = event.getMaxMembers();
+            Event updated = eventMapper.update(event, eventDto);
+            bookingScheduleService.checkAvailable(updated);
+            updated = saveBooking(updated);
+            // Освободившиеся при увеличении или снятии ограничения места занимает очередь ожидания, а не новые участники
+            if (isMaxMembersRaised(oldMaxMembers, updated.getMaxMembers())
+                    && memberRepository.promoteWaiting(eventId) > 0) {
+                userCalendarRepository.refreshMemberStatus(eventId);
+                // Участники изменены запросами в обход контекста сохранения, ответ строится по новым данным
+                entityManager.clear();
+                updated = findById(eventId);
+            }
+            userCalendarRepository.refreshEvent(eventId);
+            return eventMapper.mapEntityToDto(updated);
         } else {
             throw new AccessDeniedException(Messages.ACCESS_DENIED);
         }
     }
 
+    @Transactional
     @Override
     public boolean deleteById(Long id, Authentication authentication) {
         Event event = findById(id);
@@ -97,57 +157,114 @@ public class EventServiceImpl implements EventService {
                 throw new AccessDeniedException("Пользователь не является организатором мероприятия");
             }
         }
+        // Календари участников очищаются каскадным удалением, но их подписки должны увидеть изменение
+        userCalendarRepository.touchEvent(id);
         eventRepository.deleteById(id);
+        bookingScheduleService.remove(id);
         return eventRepository.existsById(id);
     }
 
     @Override
     public List<MemberDto> getAllMembers(Long eventId) {
-        //TODO: проверить всё это
-        List<EventMember> members = memberRepository.findAllByEventId(eventId);
-        List<UserDto> userDtoList = userService.getAllDtoById(members.stream().map(EventMember::getUserId)
-                .collect(Collectors.toList()));
-        List<MemberDto> memberDtoList = new ArrayList<>();
-
-        //Мапить через запланированных участников
-        members.forEach(m -> userDtoList.stream()
-                .filter(u -> m.getUserId().equals(u.getId()))
-                .map(u -> memberMapper.mapEntityToDto(m, u))
-                .forEach(memberDtoList::add));
-
-
-        //Мапить через найденых пользователей
-//        userDtoList.forEach(d -> members.stream()
-//                .filter(member -> member.getUserId().equals(d.getId()))
-//                .map(member -> memberMapper.mapEntityToDto(member, d))
-//                .forEach(memberDtoList::add));
-
-        //Придётся обращаться каждый раз к сервису -> может прерваться
-//        memberDtoList = members.stream()
-//                .map(m -> memberMapper.mapEntityToDto(m, userService.getDtoById(m.getUserId())))
-//                .collect(Collectors.toList());
-
-        return memberDtoList;
+        List<MemberDto> members = memberMapper.mapViewToDto(memberRepository.findAllViewByEventId(eventId));
+        // Участники в очереди ожидания следуют за принятыми в порядке очереди
+        int position = 0;
+        for (MemberDto member : members) {
+            if (member.getMemberStatus() == MemberStatus.WAITING) {
+                member.setWaitlistPosition(++position);
+            }
+        }
+        return members;
     }
 
     @Transactional
     @Override
     public MemberDto createEventMember(Long eventId, MemberRequest request) {
-        if (eventId.equals(request.getEvenId())) {
+        if (request.getEvenId() != null && !eventId.equals(request.getEvenId())) {
             throw new DataBadRequestException("Не правильно указано мероприятие");
         }
         UserDto user = userService.getDtoById(request.getUserId());
-        Event event = findById(eventId);
-        EventMember member = EventMember.builder()
-                .event(event)
-                .userId(request.getUserId())
-                .status(request.getUserStatus())
-                .build();
-        return memberMapper.mapEntityToDto(memberRepository.save(member), user);
+        if (!eventRepository.existsById(eventId)) {
+            throw new DataNotFoundException(String.format(DATA_NOT_FOUND_BY_ID, eventId));
+        }
+        EventMember member = memberRepository.join(eventId, request.getUserId(), request.getUserStatus());
+        if (member == null) {
+            // Исключение откатывает транзакцию вместе с занятым местом
+            throw new DataBadRequestException(String.format(Messages.MEMBER_ALREADY_EXISTS, request.getUserId()));
+        }
+        userCalendarRepository.addEvent(eventId, request.getUserId());
+        MemberDto memberDto = memberMapper.mapEntityToDto(member, user);
+        memberDto.setEventId(eventId);
+        if (member.getQueueNumber() != null) {
+            memberDto.setWaitlistPosition(memberRepository.getWaitlistPosition(eventId, member.getQueueNumber()));
+        }
+        return memberDto;
+    }
+
+    @Transactional
+    @Override
+    public boolean deleteEventMember(Long eventId, Long userId, Authentication authentication) {
+        Event event = eventRepository.findById(eventId).orElseThrow(
+                () -> new DataNotFoundException(String.format(DATA_NOT_FOUND_BY_ID, eventId)));
+        Long currentUserId = userService.getIdByAuthentication(authentication);
+        if (!userId.equals(currentUserId) && !event.getOrganizerId().equals(currentUserId)
+                && !Roles.hasAuthenticationRoleAdmin(authentication)) {
+            throw new AccessDeniedException(Messages.ACCESS_DENIED);
+        }
+        MemberStatus memberStatus = memberRepository.leave(eventId, userId);
+        if (memberStatus == null) {
+            throw new DataNotFoundException(String.format(Messages.MEMBER_NOT_FOUND, userId));
+        }
+        userCalendarRepository.removeEvent(eventId, userId);
+        if (memberStatus == MemberStatus.ACCEPTED) {
+            userCalendarRepository.refreshMemberStatus(eventId);
+        }
+        return true;
+    }
+
+    /**
+     * Сохранить мероприятие и занять площадку в расписании.
+     * Если площадку одновременно заняло другое мероприятие, сохранение отклоняет ограничение базы данных
+     */
+    private Event saveBooking(Event event) {
+        Event saved;
+        try {
+            saved = eventRepository.saveAndFlush(event);
+        } catch (DataIntegrityViolationException e) {
+            if (bookingScheduleService.isBookingConflict(e)) {
+                throw new DataBadRequestException(Messages.SPORTGROUND_BOOKED);
+            }
+            throw e;
+        }
+        bookingScheduleService.put(saved);
+        return saved;
+    }
+
+    /**
+     * Проверить, увеличено ли ограничение количества участников, null - количество не ограничено
+     */
+    private static boolean isMaxMembersRaised(Integer oldMaxMembers, Integer newMaxMembers) {
+        return oldMaxMembers != null && (newMaxMembers == null || newMaxMembers > oldMaxMembers);
     }
 
     private Event findById(Long id) {
-        return eventRepository.findById(id).orElseThrow(
+        return eventRepository.findDetailedById(id).orElseThrow(
                 () -> new DataNotFoundException(String.format(DATA_NOT_FOUND_BY_ID, id)));
     }
+
+    /**
+     * Раскодировать курсор страницы мероприятий: дата и идентификатор последнего мероприятия
+     */
+    private Event decodeCursor(String cursor) {
+        return Pagination.decodeCursor(cursor, 2, keys ->
+                Event.builder().date(LocalDate.parse(keys[0])).id(Long.valueOf(keys[1])).build());
+    }
+
+    /**
+     * Сформировать страницу мероприятий из запрошенных с запасом в одну запись
+     */
+    private KeysetPage<EventDto> toPage(List<Event> events, int limit) {
+        return Pagination.toPage(eventMapper.mapEntityToDto(events), limit,
+                event -> Pagination.encodeCursor(event.getDateEvent(), event.getEventId()));
+    }
 }
@@ -0,0 +1,142 @@
+package ru.dosport.services.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.dosport.helpers.ExportFormat;
+import ru.dosport.services.api.ExportService;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Реализация сервиса выгрузки данных.
+ * PostgreSQL читает результат курсором по fetchSize строк только внутри транзакции,
+ * поэтому выгрузка выполняется в транзакции только для чтения.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    // Все значения приводятся к строкам и числам, столбцы - имена полей выгрузки
+    private static final String EVENTS = "SELECT e.id, CAST(e.date AS varchar) AS date, " +
+            "CAST(e.start_time AS varchar) AS start_time, CAST(e.end_time AS varchar) AS end_time, " +
+            "e.sport_type_id, t.title AS sport_type, e.sportground_id, e.organizer_user_id, " +
+            "(SELECT count(*) FROM event_member m WHERE m.event_id = e.id) AS members_count " +
+            "FROM events e JOIN sport_types t ON t.id = e.sport_type_id ORDER BY e.id";
+
+    private static final String SPORT_GROUNDS = "SELECT g.id, g.city, g.address, g.title, " +
+            "g.location[0] AS latitude, g.location[1] AS longitude, " +
+            "(SELECT string_agg(t.title, ';') FROM sportgrounds_sport_type s JOIN sport_types t " +
+            "ON t.id = s.sport_type_id WHERE s.sportground_id = g.id) AS sport_types " +
+            "FROM sportgrounds g ORDER BY g.id";
+
+    // Количество строк, читаемых из базы данных за одно обращение
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportEvents(ExportFormat format, OutputStream output) {
+        export(EVENTS, format, output);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportSportGrounds(ExportFormat format, OutputStream output) {
+        export(SPORT_GROUNDS, format, output);
+    }
+
+    private void export(String sql, ExportFormat format, OutputStream output) {
+        long started = System.currentTimeMillis();
+        Long rows = jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, resultSet -> {
+            try {
+                return format == ExportFormat.CSV ? writeCsv(resultSet, output) : writeJsonLines(resultSet, output);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Выгружено записей: " + rows + " за " + (System.currentTimeMillis() - started) + " мс");
+    }
+
+    private long writeCsv(ResultSet resultSet, OutputStream output) throws SQLException, IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columns = metaData.getColumnCount();
+        for (int i = 1; i <= columns; i++) {
+            writeCsvField(writer, metaData.getColumnLabel(i), i == columns);
+        }
+        long rows = 0;
+        while (resultSet.next()) {
+            for (int i = 1; i <= columns; i++) {
+                Object value = resultSet.getObject(i);
+                writeCsvField(writer, value == null ? "" : value.toString(), i == columns);
+            }
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsvField(Writer writer, String value, boolean last) throws IOException {
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+        writer.write(last ? "\r\n" : ",");
+    }
+
+    private long writeJsonLines(ResultSet resultSet, OutputStream output) throws SQLException, IOException {
+        // Поток ответа закрывает контейнер сервлетов
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columns = metaData.getColumnCount();
+        String[] names = new String[columns];
+        for (int i = 1; i <= columns; i++) {
+            names[i - 1] = metaData.getColumnLabel(i);
+        }
+        long rows = 0;
+        while (resultSet.next()) {
+            generator.writeStartObject();
+            for (int i = 1; i <= columns; i++) {
+                generator.writeFieldName(names[i - 1]);
+                Object value = resultSet.getObject(i);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Number) {
+                    generator.writeNumber(value.toString());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            rows++;
+        }
+        generator.close();
+        return rows;
+    }
+}
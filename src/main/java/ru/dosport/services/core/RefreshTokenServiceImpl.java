@@ -0,0 +1,156 @@
+package ru.dosport.services.core;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import ru.dosport.dto.TokenResponse;
+import ru.dosport.entities.RefreshToken;
+import ru.dosport.entities.User;
+import ru.dosport.repositories.RefreshTokenRepository;
+import ru.dosport.repositories.UserRepository;
+import ru.dosport.security.JwtTokenProvider;
+import ru.dosport.security.JwtUser;
+import ru.dosport.services.api.RefreshTokenService;
+
+import javax.transaction.Transactional;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static ru.dosport.helpers.Messages.REFRESH_TOKEN_INVALID;
+
+/**
+ * Сервис токенов обновления.
+ * Токен имеет вид handle.секрет, где handle - случайный идентификатор сеанса, в базе данных хранится только
+ * SHA-256 хэш секрета. При каждом обновлении секрет сеанса заменяется новым, а предъявление только что
+ * замененного токена считается признаком его похищения и завершает сеанс. Любой другой неверный секрет
+ * отклоняется без изменения сеанса, чтобы подбор токенов не позволял завершать чужие сеансы.
+ */
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    // Длина идентификатора сеанса, байт
+    private static final int HANDLE_LENGTH = 16;
+
+    // Длина секретной части токена, байт
+    private static final int SECRET_LENGTH = 32;
+
+    // Необходимые зависимости
+    private final JwtTokenProvider jwtTokenProvider;
+
+    // Необходимые репозитории
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+    private final SecureRandom random = new SecureRandom();
+
+    // Токен обновления действителен 30 дней с момента последнего обновления
+    @Value("${jwt.refresh-token.validity:2592000000}")
+    private long refreshValidityInMilliseconds;
+
+    @Override
+    @Transactional
+    public TokenResponse issue(JwtUser user) {
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.deleteExpiredByUserId(user.getId(), now);
+
+        byte[] secret = generateSecret(SECRET_LENGTH);
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setHandle(encode(generateSecret(HANDLE_LENGTH)));
+        refreshToken.setUserId(user.getId());
+        refreshToken.setTokenHash(hash(secret));
+        refreshToken.setExpiresAt(getExpiresAt(now));
+        refreshToken = refreshTokenRepository.save(refreshToken);
+
+        return createResponse(user.getUsername(), user.getId(), getRoles(user), refreshToken.getHandle(), secret);
+    }
+
+    @Override
+    @Transactional(dontRollbackOn = BadCredentialsException.class)
+    public TokenResponse refresh(String token) {
+        int separator = token.indexOf('.');
+        String handle;
+        byte[] oldHash;
+        try {
+            handle = token.substring(0, separator);
+            oldHash = hash(Base64.getUrlDecoder().decode(token.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadCredentialsException(REFRESH_TOKEN_INVALID);
+        }
+
+        RefreshToken refreshToken = refreshTokenRepository.findByHandle(handle).orElseThrow(
+                () -> new BadCredentialsException(REFRESH_TOKEN_INVALID));
+        if (!MessageDigest.isEqual(refreshToken.getTokenHash(), oldHash)) {
+            // Повторно предъявлен замененный токен: им мог воспользоваться похититель, сеанс завершается
+            if (refreshToken.getPreviousTokenHash() != null
+                    && MessageDigest.isEqual(refreshToken.getPreviousTokenHash(), oldHash)) {
+                refreshTokenRepository.delete(refreshToken);
+            }
+            throw new BadCredentialsException(REFRESH_TOKEN_INVALID);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (refreshToken.getExpiresAt().isBefore(now)) {
+            refreshTokenRepository.delete(refreshToken);
+            throw new BadCredentialsException(REFRESH_TOKEN_INVALID);
+        }
+
+        // Заблокированный пользователь не получает новых токенов доступа, выданные истекают в течение их срока
+        User user = userRepository.findById(refreshToken.getUserId()).orElse(null);
+        if (user == null || !user.isEnabled()) {
+            refreshTokenRepository.deleteAllByUserId(refreshToken.getUserId());
+            throw new BadCredentialsException(REFRESH_TOKEN_INVALID);
+        }
+
+        // Токен, одновременно замененный другим запросом, не обновляется
+        byte[] secret = generateSecret(SECRET_LENGTH);
+        if (refreshTokenRepository.rotate(refreshToken.getId(), oldHash, hash(secret), getExpiresAt(now)) == 0) {
+            throw new BadCredentialsException(REFRESH_TOKEN_INVALID);
+        }
+
+        List<String> roles = user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).collect(Collectors.toList());
+        return createResponse(user.getUsername(), user.getId(), roles, handle, secret);
+    }
+
+    private TokenResponse createResponse(String username, Long userId, List<String> roles,
+                                         String handle, byte[] secret) {
+        String accessToken = jwtTokenProvider.createToken(username, userId, roles);
+        String refreshToken = handle + "." + encode(secret);
+        return new TokenResponse(accessToken, refreshToken,
+                TimeUnit.MILLISECONDS.toSeconds(jwtTokenProvider.getValidityInMilliseconds()));
+    }
+
+    private List<String> getRoles(JwtUser user) {
+        return user.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList());
+    }
+
+    private LocalDateTime getExpiresAt(LocalDateTime now) {
+        return now.plusNanos(TimeUnit.MILLISECONDS.toNanos(refreshValidityInMilliseconds));
+    }
+
+    private byte[] generateSecret(int length) {
+        byte[] secret = new byte[length];
+        random.nextBytes(secret);
+        return secret;
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static byte[] hash(byte[] secret) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secret);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package ru.dosport.services.core;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import ru.dosport.dto.SportGroundImportReport;
+import ru.dosport.dto.SportGroundRequest;
+import ru.dosport.dto.SportTypeDto;
+import ru.dosport.exceptions.DataBadRequestException;
+import ru.dosport.exceptions.DataNotFoundException;
+import ru.dosport.helpers.CsvReader;
+import ru.dosport.helpers.GeoUtils;
+import ru.dosport.services.api.SportGroundImportService;
+import ru.dosport.services.api.SportGroundService;
+import ru.dosport.services.api.SportTypeService;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static ru.dosport.helpers.Messages.*;
+
+/**
+ * Реализация сервиса импорта Спортивных площадок.
+ * Файл читается потоком по одной записи, записи проверяются и сохраняются пакетами по batchSize площадок,
+ * каждый пакет - в отдельной транзакции. Память расходуется только на текущий пакет.
+ * Пакет, который не удалось сохранить из-за площадки с тем же адресом, созданной одновременно другим запросом,
+ * сохраняется повторно без уже существующих адресов, а при повторной ошибке пропускается, и импорт продолжается.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class SportGroundImportServiceImpl implements SportGroundImportService {
+
+    // Обязательные столбцы CSV
+    private static final List<String> CSV_COLUMNS = Arrays.asList("city", "address", "title", "latitude", "longitude");
+
+    private static final String CSV_SPORT_TYPES_COLUMN = "sport_types";
+
+    // Разделитель названий видов спорта
+    private static final String SPORT_TYPE_SEPARATOR = ";";
+
+    // Максимальное количество ошибок в отчете
+    private static final int MAX_ERRORS = 100;
+
+    // Количество площадок в пакете
+    @Value("${sportgrounds.import.batch-size:500}")
+    private int batchSize;
+
+    // Необходимые сервисы
+    private final SportGroundService sportGroundService;
+    private final SportTypeService sportTypeService;
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Override
+    public SportGroundImportReport importCsv(InputStream input) {
+        Importer importer = new Importer();
+        try (CsvReader reader = new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8), ',')) {
+            Map<String, Integer> columns = readCsvHeader(reader.readRecord());
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                List<String> fields = record;
+                importer.add("строка " + reader.getLineNumber(), () -> toRequest(fields, columns));
+            }
+        } catch (IOException e) {
+            throw new DataBadRequestException(String.format(INVALID_IMPORT_FILE, importer.report.getRead(),
+                    e.getMessage()));
+        }
+        return importer.finish();
+    }
+
+    @Override
+    public SportGroundImportReport importGeoJson(InputStream input) {
+        Importer importer = new Importer();
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("ожидается объект FeatureCollection");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("features".equals(field) && token == JsonToken.START_ARRAY) {
+                    // В памяти разворачивается только текущий объект массива features
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        JsonNode feature = parser.readValueAsTree();
+                        importer.add("объект " + (importer.report.getRead() + 1), () -> toRequest(feature));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new DataBadRequestException(String.format(INVALID_IMPORT_FILE, importer.report.getRead(),
+                    e.getMessage()));
+        }
+        return importer.finish();
+    }
+
+    /**
+     * Определить номера обязательных столбцов CSV по заголовку
+     */
+    private Map<String, Integer> readCsvHeader(List<String> header) throws IOException {
+        if (header == null) {
+            throw new IOException("файл пуст");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            // Первый столбец может начинаться с метки порядка байтов UTF-8
+            columns.put(header.get(i).replace("\uFEFF", "").trim().toLowerCase(), i);
+        }
+        for (String column : CSV_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IOException("нет столбца " + column);
+            }
+        }
+        return columns;
+    }
+
+    private SportGroundRequest toRequest(List<String> fields, Map<String, Integer> columns) {
+        SportGroundRequest request = new SportGroundRequest();
+        request.setCity(getField(fields, columns.get("city")));
+        request.setAddress(getField(fields, columns.get("address")));
+        request.setTitle(getField(fields, columns.get("title")));
+        request.setLatitude(toDouble(getField(fields, columns.get("latitude"))));
+        request.setLongitude(toDouble(getField(fields, columns.get("longitude"))));
+        String sportTypes = getField(fields, columns.get(CSV_SPORT_TYPES_COLUMN));
+        request.setSportTypes(toSportTypes(sportTypes == null ?
+                Collections.emptyList() : Arrays.asList(sportTypes.split(SPORT_TYPE_SEPARATOR))));
+        return request;
+    }
+
+    private SportGroundRequest toRequest(JsonNode feature) {
+        JsonNode geometry = feature.path("geometry");
+        JsonNode coordinates = geometry.path("coordinates");
+        if (!"Point".equals(geometry.path("type").asText())
+                || !coordinates.path(0).isNumber() || !coordinates.path(1).isNumber()) {
+            throw new IllegalArgumentException("геометрия должна быть точкой Point [долгота, широта]");
+        }
+        JsonNode properties = feature.path("properties");
+        SportGroundRequest request = new SportGroundRequest();
+        request.setCity(getText(properties, "city"));
+        request.setAddress(getText(properties, "address"));
+        request.setTitle(getText(properties, "title"));
+        request.setLatitude(coordinates.get(1).asDouble());
+        request.setLongitude(coordinates.get(0).asDouble());
+        JsonNode sportTypes = properties.path("sportTypes");
+        List<String> titles = new ArrayList<>();
+        if (sportTypes.isArray()) {
+            sportTypes.forEach(title -> titles.add(title.asText()));
+        } else if (sportTypes.isTextual()) {
+            titles.addAll(Arrays.asList(sportTypes.asText().split(SPORT_TYPE_SEPARATOR)));
+        }
+        request.setSportTypes(toSportTypes(titles));
+        return request;
+    }
+
+    /**
+     * Найти виды спорта по названиям в справочнике в памяти
+     */
+    private List<SportTypeDto> toSportTypes(List<String> titles) {
+        return titles.stream()
+                .map(String::trim)
+                .filter(title -> !title.isEmpty())
+                .distinct()
+                .map(title -> {
+                    SportTypeDto sportType = new SportTypeDto();
+                    sportType.setSportTypeId(sportTypeService.getSportTypeByTitle(title).getId());
+                    sportType.setTitle(title);
+                    return sportType;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static String getField(List<String> fields, Integer index) {
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String getText(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() || value.asText().trim().isEmpty() ? null : value.asText().trim();
+    }
+
+    private static Double toDouble(String value) {
+        return value == null ? null : Double.valueOf(value);
+    }
+
+    private static void validate(SportGroundRequest request) {
+        if (request.getCity() == null || request.getAddress() == null || request.getTitle() == null) {
+            throw new DataBadRequestException(DATA_NOT_BLANK + "Город, Адрес, Название");
+        }
+        if (!GeoUtils.isValid(request.getLatitude(), request.getLongitude())) {
+            throw new DataBadRequestException(INVALID_COORDINATES);
+        }
+    }
+
+    /**
+     * Накопление записей в пакеты и их сохранение
+     */
+    private class Importer {
+
+        private final SportGroundImportReport report = new SportGroundImportReport();
+
+        private final List<SportGroundRequest> batch = new ArrayList<>();
+
+        // Адреса текущего пакета; повторы из предыдущих пакетов отсеиваются по базе данных
+        private final Set<String> addresses = new HashSet<>();
+
+        /**
+         * Разобрать и проверить запись, добавить ее в пакет и сохранить пакет, если он заполнен
+         *
+         * @param position положение записи в файле для отчета об ошибке
+         */
+        private void add(String position, Supplier<SportGroundRequest> parser) {
+            report.setRead(report.getRead() + 1);
+            SportGroundRequest request;
+            try {
+                request = parser.get();
+                validate(request);
+            } catch (IllegalArgumentException | DataBadRequestException | DataNotFoundException e) {
+                report.setInvalid(report.getInvalid() + 1);
+                if (report.getErrors().size() < MAX_ERRORS) {
+                    report.getErrors().add(position + ": " + e.getMessage());
+                }
+                return;
+            }
+            if (!addresses.add(request.getAddress())) {
+                report.setDuplicates(report.getDuplicates() + 1);
+                return;
+            }
+            batch.add(request);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Сохранить неполный последний пакет
+         */
+        private SportGroundImportReport finish() {
+            if (!batch.isEmpty()) {
+                flush();
+            }
+            log.info("Импорт площадок завершен: прочитано " + report.getRead() + ", создано " + report.getCreated()
+                    + ", повторов " + report.getDuplicates() + ", ошибок " + report.getInvalid()
+                    + ", пропущено " + report.getSkipped());
+            return report;
+        }
+
+        private void flush() {
+            report.setBatches(report.getBatches() + 1);
+            try {
+                int created = createAllSkippingExisting();
+                report.setCreated(report.getCreated() + created);
+                report.setDuplicates(report.getDuplicates() + batch.size() - created);
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Импорт площадок: пакет " + report.getBatches() + " пропущен", e);
+                report.setSkipped(report.getSkipped() + batch.size());
+                if (report.getErrors().size() < MAX_ERRORS) {
+                    report.getErrors().add(String.format(IMPORT_BATCH_SKIPPED, report.getBatches(), batch.size(),
+                            e.getMostSpecificCause().getMessage()));
+                }
+            }
+            batch.clear();
+            addresses.clear();
+            log.info("Импорт площадок: пакет " + report.getBatches() + ", прочитано " + report.getRead()
+                    + ", создано " + report.getCreated());
+        }
+
+        /**
+         * Сохранить пакет, повторив попытку один раз, если адрес площадки одновременно занял другой запрос
+         */
+        private int createAllSkippingExisting() {
+            try {
+                return sportGroundService.createAllSkippingExisting(batch);
+            } catch (DataIntegrityViolationException e) {
+                log.debug(e);
+                entityManager.clear();
+                return sportGroundService.createAllSkippingExisting(batch);
+            } finally {
+                // Контекст сохранения открыт на весь запрос (open-in-view), площадки пакета в нем больше не нужны
+                entityManager.clear();
+            }
+        }
+    }
+}
@@ -1,28 +1,72 @@
 package ru.dosport.services.core;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.geo.Point;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.dosport.dto.KeysetPage;
 import ru.dosport.dto.SportGroundDto;
 import ru.dosport.dto.SportGroundRequest;
+import ru.dosport.dto.SportGroundSummaryDto;
 import ru.dosport.entities.SportGround;
+import ru.dosport.entities.SportType;
+import ru.dosport.exceptions.DataBadRequestException;
 import ru.dosport.exceptions.DataNotFoundException;
+import ru.dosport.helpers.BookingSchedule;
+import ru.dosport.helpers.GeoUtils;
+import ru.dosport.helpers.Pagination;
+import ru.dosport.helpers.SpatialGrid;
 import ru.dosport.mappers.SportGroundMapper;
 import ru.dosport.mappers.SportTypeMapper;
 import ru.dosport.repositories.SportGroundRepository;
+import ru.dosport.repositories.SportGroundSummary;
+import ru.dosport.services.api.BookingScheduleService;
 import ru.dosport.services.api.SportGroundService;
+import ru.dosport.services.api.SportTypeService;
 
-import java.util.List;
+import javax.annotation.PostConstruct;
+import javax.transaction.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
-import static ru.dosport.helpers.Messages.DATA_NOT_FOUND_BY_ID;
+import static ru.dosport.helpers.Messages.*;
 
 /**
  * Сервис Спортивных площадок.
  */
+@Log4j2
 @Service
 @RequiredArgsConstructor
 public class SportGroundServiceImp implements SportGroundService {
 
+    // Максимальный радиус поиска, км
+    private static final double MAX_RADIUS = 100.0;
+
+    // Максимальный номер страницы поиска по расстоянию: смещение не превышает MAX_PAGE * MAX_PAGE_SIZE площадок
+    private static final int MAX_PAGE = 100;
+
+    // Максимальное количество площадок, создаваемых одним запросом
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    // Любой вид спорта в запросах репозитория
+    private static final short ANY_SPORT_TYPE = -1;
+
+    // Искать площадки по сетке в памяти вместо запросов к базе данных
+    @Value("${sportgrounds.grid.enabled:true}")
+    private boolean gridEnabled;
+
+    // Размер ячейки сетки, градусы
+    @Value("${sportgrounds.grid.cell-size:0.01}")
+    private double gridCellSize;
+
     // Репозитории
     private final SportGroundRepository groundRepository;
 
@@ -30,6 +74,38 @@ public class SportGroundServiceImp implements SportGroundService {
     private final SportGroundMapper groundMapper;
     private final SportTypeMapper typeMapper;
 
+    // Необходимые сервисы
+    private final SportTypeService sportTypeService;
+    private final BookingScheduleService bookingScheduleService;
+
+    // Сетка площадок в памяти, null если поиск по сетке выключен
+    private SpatialGrid grid;
+
+    /**
+     * Построить сетку площадок по данным репозитория
+     */
+    @PostConstruct
+    protected void init() {
+        if (!gridEnabled) {
+            return;
+        }
+        Map<Long, List<Short>> sportTypes = new HashMap<>();
+        for (Object[] row : groundRepository.findAllSportTypeIds()) {
+            sportTypes.computeIfAbsent(((Number) row[0]).longValue(), id -> new ArrayList<>())
+                    .add(((Number) row[1]).shortValue());
+        }
+        List<SpatialGrid.Entry> entries = new ArrayList<>();
+        for (Object[] row : groundRepository.findAllLocations()) {
+            long id = ((Number) row[0]).longValue();
+            entries.add(new SpatialGrid.Entry(id, ((Number) row[1]).doubleValue(), ((Number) row[2]).doubleValue(),
+                    toArray(sportTypes.getOrDefault(id, Collections.emptyList()))));
+        }
+        SpatialGrid newGrid = new SpatialGrid(gridCellSize);
+        newGrid.putAll(entries);
+        grid = newGrid;
+        log.debug("Сетка площадок построена, площадок: " + grid.size());
+    }
+
     @Override
     public SportGroundDto getDtoById(Long id) {
         return groundMapper.mapEntityToDto(findById(id));
@@ -45,26 +121,274 @@ public class SportGroundServiceImp implements SportGroundService {
         return city == null ? getAllDto() : groundMapper.mapEntityToDto(groundRepository.findAllByCity(city));
     }
 
+    @Override
+    public KeysetPage<SportGroundSummaryDto> getAllSummaryDto(String city, String cursor, Integer size) {
+        int limit = Pagination.getLimit(size);
+        Long afterId = Pagination.decodeCursor(cursor, 1, keys -> Long.valueOf(keys[0]));
+        long from = afterId != null ? afterId : 0L;
+        List<SportGroundSummary> grounds = city == null ?
+                groundRepository.findAllSummaryAfter(from, limit + 1) :
+                groundRepository.findAllSummaryByCityAfter(city, from, limit + 1);
+        return Pagination.toPage(groundMapper.mapSummaryToDto(grounds), limit,
+                ground -> Pagination.encodeCursor(ground.getSportGroundId()));
+    }
+
     @Override
     public List<SportGroundDto> getAllDtoById(List<Long> idList) {
         return groundMapper.mapEntityToDto(groundRepository.findAllById(idList));
     }
 
+    @Override
+    public List<SportGroundSummaryDto> getAllSummaryDtoNearby(Double latitude, Double longitude, Double radius,
+                                                              Short sportTypeId, Integer page, Integer size) {
+        checkCoordinates(latitude, longitude);
+        checkPage(page, size);
+        if (radius == null || radius <= 0 || radius > MAX_RADIUS) {
+            throw new DataBadRequestException(String.format(INVALID_RADIUS, MAX_RADIUS));
+        }
+        if (grid != null) {
+            List<SpatialGrid.Result> results = grid.findWithin(latitude, longitude, radius, sportTypeId,
+                    (page + 1) * size);
+            return mapResultsToDto(results.subList(Math.min(page * size, results.size()), results.size()));
+        }
+        double dLatitude = GeoUtils.latitudeDelta(radius);
+        double dLongitude = GeoUtils.longitudeDelta(latitude, radius);
+        List<SportGroundSummary> grounds = groundRepository.findAllNearby(latitude, longitude, radius,
+                sportTypeId != null ? sportTypeId : ANY_SPORT_TYPE,
+                latitude - dLatitude, longitude - dLongitude, latitude + dLatitude, longitude + dLongitude,
+                size, page * size);
+        return mapSummaryToDto(grounds, latitude, longitude);
+    }
+
+    @Override
+    public List<SportGroundSummaryDto> getAllSummaryDtoInArea(Double minLatitude, Double minLongitude,
+                                                              Double maxLatitude, Double maxLongitude,
+                                                              Double latitude, Double longitude,
+                                                              Integer page, Integer size) {
+        checkCoordinates(minLatitude, minLongitude);
+        checkCoordinates(maxLatitude, maxLongitude);
+        checkPage(page, size);
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            throw new DataBadRequestException(INVALID_COORDINATES);
+        }
+        double centerLatitude = latitude != null ? latitude : (minLatitude + maxLatitude) / 2;
+        double centerLongitude = longitude != null ? longitude : (minLongitude + maxLongitude) / 2;
+        List<SportGroundSummary> grounds = groundRepository.findAllInBox(minLatitude, minLongitude,
+                maxLatitude, maxLongitude, centerLatitude, centerLongitude, size, page * size);
+        return mapSummaryToDto(grounds, centerLatitude, centerLongitude);
+    }
+
+    @Override
+    public List<SportGroundSummaryDto> getAllSummaryDtoAvailable(Double latitude, Double longitude, Double radius,
+                                                                 Short sportTypeId, LocalDate date, LocalTime startTime,
+                                                                 LocalTime endTime, Integer count) {
+        checkCoordinates(latitude, longitude);
+        checkPage(0, count);
+        if (radius == null || radius <= 0 || radius > MAX_RADIUS) {
+            throw new DataBadRequestException(String.format(INVALID_RADIUS, MAX_RADIUS));
+        }
+        if (date == null || startTime == null) {
+            throw new DataBadRequestException(DATA_NOT_BLANK + "Дата, Время начала");
+        }
+        LocalDateTime from = date.atTime(startTime);
+        LocalDateTime to = BookingSchedule.getEnd(date, startTime, endTime);
+        if (grid != null) {
+            // Занятость проверяется только для площадок, ближе уже найденных свободных
+            Predicate<Long> available = bookingScheduleService.getAvailability(from, to);
+            return mapResultsToDto(grid.findWithin(latitude, longitude, radius, sportTypeId, count,
+                    entry -> available.test(entry.getId())));
+        }
+        double dLatitude = GeoUtils.latitudeDelta(radius);
+        double dLongitude = GeoUtils.longitudeDelta(latitude, radius);
+        // Занятые сериями площадки исключает сам запрос, поэтому их количество не увеличивает выборку
+        Set<Long> bookedBySeries = bookingScheduleService.getGroundIdsBookedBySeries(from, to);
+        String excludedIds = bookedBySeries.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}"));
+        List<SportGroundSummary> grounds = groundRepository.findAllAvailableNearby(latitude, longitude, radius,
+                sportTypeId != null ? sportTypeId : ANY_SPORT_TYPE,
+                latitude - dLatitude, longitude - dLongitude, latitude + dLatitude, longitude + dLongitude,
+                from, to, excludedIds, count);
+        return mapSummaryToDto(grounds, latitude, longitude);
+    }
+
+    @Override
+    public List<SportGroundSummaryDto> getAllSummaryDtoNearest(Double latitude, Double longitude, Short sportTypeId,
+                                                               Integer count) {
+        checkCoordinates(latitude, longitude);
+        checkPage(0, count);
+        if (grid != null) {
+            // В малонаселенной области обход сетки прерывается, и ближайшие площадки ищутся по индексу базы данных
+            List<SpatialGrid.Result> results = grid.findNearest(latitude, longitude, count, sportTypeId);
+            if (results != null) {
+                return mapResultsToDto(results);
+            }
+        }
+        List<SportGroundSummaryDto> dtoList = mapSummaryToDto(groundRepository.findAllNearest(latitude, longitude,
+                sportTypeId != null ? sportTypeId : ANY_SPORT_TYPE, count), latitude, longitude);
+        dtoList.sort(Comparator.comparing(SportGroundSummaryDto::getDistance));
+        return dtoList;
+    }
+
     @Override
     public SportGround getById(Long id) {
         return findById(id);
     }
 
+    @Transactional
     @Override
     public SportGroundDto create(SportGroundRequest request) {
-        SportGround ground = SportGround.builder()
+        checkRequest(request);
+        return groundMapper.mapEntityToDto(saveAll(Collections.singletonList(request)).get(0));
+    }
+
+    @Transactional
+    @Override
+    public List<SportGroundDto> createAll(List<SportGroundRequest> requests) {
+        if (requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            throw new DataBadRequestException(String.format(INVALID_BATCH_SIZE, MAX_BATCH_SIZE));
+        }
+        Set<String> addresses = new HashSet<>();
+        for (SportGroundRequest request : requests) {
+            checkRequest(request);
+            if (!addresses.add(request.getAddress())) {
+                throw new DataBadRequestException(String.format(SPORTGROUND_ADDRESS_EXISTS, request.getAddress()));
+            }
+        }
+        List<String> existing = groundRepository.findAllAddressByAddressIn(addresses);
+        if (!existing.isEmpty()) {
+            throw new DataBadRequestException(String.format(SPORTGROUND_ADDRESS_EXISTS, existing.get(0)));
+        }
+
+        return groundMapper.mapEntityToDto(saveAll(requests));
+    }
+
+    @Transactional
+    @Override
+    public int createAllSkippingExisting(List<SportGroundRequest> requests) {
+        Set<String> existing = new HashSet<>(groundRepository.findAllAddressByAddressIn(
+                requests.stream().map(SportGroundRequest::getAddress).collect(Collectors.toList())));
+        List<SportGroundRequest> newRequests = requests.stream()
+                .filter(request -> !existing.contains(request.getAddress()))
+                .collect(Collectors.toList());
+        return newRequests.isEmpty() ? 0 : saveAll(newRequests).size();
+    }
+
+    /**
+     * Сохранить площадки в текущей транзакции и добавить их в сетку после ее фиксации
+     */
+    private List<SportGround> saveAll(List<SportGroundRequest> requests) {
+        // Идентификаторы выделяются из последовательности блоками, вставка выполняется пакетами при фиксации
+        List<SportGround> savedGrounds = groundRepository.saveAll(
+                requests.stream().map(this::toEntity).collect(Collectors.toList()));
+        if (grid != null) {
+            List<SpatialGrid.Entry> entries = savedGrounds.stream().map(this::toGridEntry).collect(Collectors.toList());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    grid.putAll(entries);
+                }
+            });
+        }
+        return savedGrounds;
+    }
+
+    /**
+     * Проверить запрос на создание площадки
+     */
+    private void checkRequest(SportGroundRequest request) {
+        if (isBlank(request.getCity()) || isBlank(request.getAddress()) || isBlank(request.getTitle())
+                || request.getLatitude() == null || request.getLongitude() == null) {
+            throw new DataBadRequestException(DATA_NOT_BLANK + "Город, Адрес, Название, Широта, Долгота");
+        }
+        checkCoordinates(request.getLatitude(), request.getLongitude());
+        if (request.getSportTypes() != null) {
+            request.getSportTypes().forEach(sportType -> sportTypeService.getSportTypeDtoById(sportType.getSportTypeId()));
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * Создать сущность площадки по запросу
+     */
+    private SportGround toEntity(SportGroundRequest request) {
+        return SportGround.builder()
+                .city(request.getCity())
                 .address(request.getAddress())
                 .sportType(typeMapper.mapDtoToEntity(request.getSportTypes()))
                 .title(request.getTitle())
                 .location(new Point(request.getLatitude(), request.getLongitude()))
                 .build();
+    }
+
+    /**
+     * Загрузить площадки, найденные по сетке, сохраняя порядок и расстояние
+     */
+    private List<SportGroundSummaryDto> mapResultsToDto(List<SpatialGrid.Result> results) {
+        if (results.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, SportGroundSummary> grounds = groundRepository.findAllSummaryByIdIn(results.stream()
+                .map(r -> r.getEntry().getId()).collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(SportGroundSummary::getId, Function.identity()));
+        List<SportGroundSummaryDto> dtoList = new ArrayList<>(results.size());
+        for (SpatialGrid.Result result : results) {
+            SportGroundSummary ground = grounds.get(result.getEntry().getId());
+            if (ground != null) {
+                SportGroundSummaryDto dto = groundMapper.mapSummaryToDto(ground);
+                dto.setDistance(result.getDistance());
+                dtoList.add(dto);
+            }
+        }
+        return dtoList;
+    }
+
+    /**
+     * Создать точку сетки для площадки
+     */
+    private SpatialGrid.Entry toGridEntry(SportGround ground) {
+        List<Short> sportTypeIds = ground.getSportType() == null ? Collections.emptyList() :
+                ground.getSportType().stream().map(SportType::getId).collect(Collectors.toList());
+        return new SpatialGrid.Entry(ground.getId(), ground.getLocation().getX(), ground.getLocation().getY(),
+                toArray(sportTypeIds));
+    }
 
-        return groundMapper.mapEntityToDto(groundRepository.save(ground));
+    private static short[] toArray(List<Short> list) {
+        short[] array = new short[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Преобразовать площадки в dto с расстоянием до точки
+     */
+    private List<SportGroundSummaryDto> mapSummaryToDto(List<SportGroundSummary> grounds,
+                                                        double latitude, double longitude) {
+        List<SportGroundSummaryDto> dtoList = groundMapper.mapSummaryToDto(grounds);
+        dtoList.forEach(dto -> dto.setDistance(
+                GeoUtils.distance(latitude, longitude, dto.getLatitude(), dto.getLongitude())));
+        return dtoList;
+    }
+
+    /**
+     * Проверить координаты точки
+     */
+    private void checkCoordinates(Double latitude, Double longitude) {
+        if (!GeoUtils.isValid(latitude, longitude)) {
+            throw new DataBadRequestException(INVALID_COORDINATES);
+        }
+    }
+
+    /**
+     * Проверить параметры страницы
+     */
+    private void checkPage(Integer page, Integer size) {
+        if (page == null || size == null || page < 0 || page > MAX_PAGE || size < 1 || size > Pagination.MAX_PAGE_SIZE) {
+            throw new DataBadRequestException(String.format(INVALID_PAGE_NUMBER, MAX_PAGE, Pagination.MAX_PAGE_SIZE));
+        }
     }
 
     /**
@@ -2,21 +2,27 @@ package ru.dosport.services.core;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.dosport.dto.KeysetPage;
 import ru.dosport.dto.SportTypeDto;
 import ru.dosport.entities.SportType;
 import ru.dosport.exceptions.DataNotFoundException;
+import ru.dosport.helpers.Pagination;
 import ru.dosport.mappers.SportTypeMapper;
 import ru.dosport.repositories.SportTypeRepository;
 import ru.dosport.services.api.SportTypeService;
 
 import javax.transaction.Transactional;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import static ru.dosport.helpers.Messages.DATA_NOT_FOUND_BY_ID;
 
 /**
  * Реализация сервиса Видов спорта.
+ * Справочник видов спорта меняется редко, поэтому читается из базы данных один раз и хранится в памяти
+ * до первого изменения.
  */
 @Service
 @RequiredArgsConstructor
@@ -26,41 +32,121 @@ public class SportTypeServiceImpl implements SportTypeService {
     private final SportTypeMapper mapper;
     private final SportTypeRepository repository;
 
+    // Снимок справочника, null - требуется загрузка из базы данных
+    private volatile Snapshot snapshot;
+
     @Override
     public SportTypeDto getSportTypeDtoById(Short id) {
-        return mapper.mapEntityToDto(findById(id));
+        SportTypeDto sportType = getSnapshot().byId.get(id);
+        if (sportType == null) {
+            throw new DataNotFoundException(String.format(DATA_NOT_FOUND_BY_ID, id));
+        }
+        return sportType;
     }
 
     @Override
-    public List<SportTypeDto> getAllSportTypeDto() {
-        return mapper.mapEntityToDto(repository.findAll());
+    public KeysetPage<SportTypeDto> getAllSportTypeDto(String cursor, Integer size) {
+        int limit = Pagination.getLimit(size);
+        Short afterId = Pagination.decodeCursor(cursor, 1, keys -> Short.valueOf(keys[0]));
+        List<SportTypeDto> sportTypes = getSnapshot().dtoList.stream()
+                .filter(sportType -> afterId == null || sportType.getSportTypeId() > afterId)
+                .limit(limit + 1)
+                .collect(Collectors.toList());
+        return Pagination.toPage(sportTypes, limit,
+                sportType -> Pagination.encodeCursor(sportType.getSportTypeId()));
+    }
+
+    @Override
+    public String getVersion() {
+        return getSnapshot().version;
     }
 
     @Override
     public SportType getSportTypeByTitle(String title) {
-        return repository.findByTitle(title).orElseThrow(
-                () -> new DataNotFoundException(String.format(DATA_NOT_FOUND_BY_ID, title)));
+        SportTypeDto sportType = getSnapshot().byTitle.get(title);
+        if (sportType == null) {
+            throw new DataNotFoundException(String.format(DATA_NOT_FOUND_BY_ID, title));
+        }
+        // Снимок общий для всех запросов, поэтому каждый вызов получает свою копию сущности
+        return mapper.mapDtoToEntity(sportType);
     }
 
     @Transactional
     @Override
     public SportTypeDto save(String sportTitle) {
-        Optional<SportType> sport = repository.findByTitle(sportTitle);
-        return sport.isPresent() ?
-                mapper.mapEntityToDto(sport.get()) : mapper.mapEntityToDto(repository.save(new SportType(sportTitle)));
+        SportTypeDto sport = getSnapshot().byTitle.get(sportTitle);
+        if (sport != null) {
+            return sport;
+        }
+        SportTypeDto saved = mapper.mapEntityToDto(repository.save(new SportType(sportTitle)));
+        invalidate();
+        return saved;
     }
 
     @Override
     public Boolean deleteById(Short id) {
         repository.deleteById(id);
+        invalidate();
         return repository.existsById(id);
     }
 
     /**
-     * Найти по идентификатору
+     * Получить снимок справочника, загрузив его при необходимости
      */
-    private SportType findById(Short id) {
-        return repository.findById(id).orElseThrow(
-                () -> new DataNotFoundException(String.format(DATA_NOT_FOUND_BY_ID, id)));
+    private Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = new Snapshot(repository.findAll(), mapper);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Сбросить снимок справочника, а внутри транзакции - еще и после ее завершения,
+     * чтобы параллельное чтение не закэшировало данные до фиксации изменений
+     */
+    private void invalidate() {
+        snapshot = null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    snapshot = null;
+                }
+            });
+        }
+    }
+
+    /**
+     * Неизменяемый снимок справочника видов спорта
+     */
+    private static class Snapshot {
+
+        // Виды спорта, упорядоченные по id
+        private final List<SportTypeDto> dtoList;
+
+        private final Map<Short, SportTypeDto> byId = new HashMap<>();
+
+        private final Map<String, SportTypeDto> byTitle = new HashMap<>();
+
+        // Версия справочника для HTTP заголовка ETag, зависит только от содержимого
+        private final String version;
+
+        private Snapshot(List<SportType> sportTypes, SportTypeMapper mapper) {
+            List<SportTypeDto> dtoList = new ArrayList<>(mapper.mapEntityToDto(sportTypes));
+            dtoList.sort(Comparator.comparing(SportTypeDto::getSportTypeId));
+            this.dtoList = Collections.unmodifiableList(dtoList);
+            dtoList.forEach(dto -> {
+                byId.put(dto.getSportTypeId(), dto);
+                byTitle.put(dto.getTitle(), dto);
+            });
+            this.version = Integer.toHexString(dtoList.hashCode());
+        }
     }
 }
@@ -0,0 +1,54 @@
+package ru.dosport.services.core;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import ru.dosport.dto.CalendarEventDto;
+import ru.dosport.exceptions.DataBadRequestException;
+import ru.dosport.mappers.UserCalendarMapper;
+import ru.dosport.repositories.UserCalendarRepository;
+import ru.dosport.services.api.UserCalendarService;
+import ru.dosport.services.api.UserService;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static ru.dosport.helpers.Messages.INVALID_CALENDAR_RANGE;
+
+/**
+ * Сервис Календаря пользователя
+ */
+@Service
+@RequiredArgsConstructor
+public class UserCalendarServiceImpl implements UserCalendarService {
+
+    // Период календаря по умолчанию и максимальный период, дней
+    private static final int DEFAULT_DAYS = 31;
+    private static final int MAX_DAYS = 366;
+
+    // Необходимые мапперы
+    private final UserCalendarMapper userCalendarMapper;
+
+    // Необходимые репозитории
+    private final UserCalendarRepository userCalendarRepository;
+
+    // Сервисы
+    private final UserService userService;
+
+    @Override
+    public List<CalendarEventDto> getCalendar(Authentication authentication, LocalDate from, LocalDate to) {
+        if (from == null) {
+            from = LocalDate.now();
+        }
+        if (to == null) {
+            to = from.plusDays(DEFAULT_DAYS - 1);
+        }
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new DataBadRequestException(String.format(INVALID_CALENDAR_RANGE, MAX_DAYS));
+        }
+        return userCalendarMapper.mapEntityToDto(userCalendarRepository
+                .findAllByUserIdAndDateBetweenOrderByDateAscStartTimeAscEventIdAsc(
+                        userService.getIdByAuthentication(authentication), from, to));
+    }
+}
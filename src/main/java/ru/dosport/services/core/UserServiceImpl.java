@@ -1,12 +1,15 @@
 package ru.dosport.services.core;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import ru.dosport.dto.KeysetPage;
 import ru.dosport.dto.PasswordRequest;
 import ru.dosport.dto.UserDto;
 import ru.dosport.dto.UserRequest;
@@ -15,9 +18,12 @@ import ru.dosport.entities.Gender;
 import ru.dosport.entities.User;
 import ru.dosport.exceptions.DataBadRequestException;
 import ru.dosport.exceptions.DataNotFoundException;
+import ru.dosport.helpers.Pagination;
 import ru.dosport.mappers.UserMapper;
 import ru.dosport.repositories.AuthorityRepository;
+import ru.dosport.repositories.RefreshTokenRepository;
 import ru.dosport.repositories.UserRepository;
+import ru.dosport.security.JwtRevocationRegistry;
 import ru.dosport.security.JwtUser;
 import ru.dosport.services.api.UserService;
 
@@ -31,15 +37,19 @@ import static ru.dosport.helpers.Roles.ROLE_USER;
  */
 @Service
 @RequiredArgsConstructor
-public class UserServiceImpl implements UserService, UserDetailsService {
+public class UserServiceImpl implements UserService, UserDetailsService, UserDetailsPasswordService {
 
     // Необходимые сервисы и мапперы
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
 
     // Необходимые репозитории
     private final UserRepository userRepository;
     private final AuthorityRepository authorityRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    // Реестр отозванных токенов
+    private final JwtRevocationRegistry revocationRegistry;
 
     @Override
     public UserDto getDtoById(Long id) {
@@ -67,8 +77,13 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     }
 
     @Override
-    public List<UserDto> getAllDto() {
-        return userMapper.mapEntityToDto(userRepository.findAll());
+    public KeysetPage<UserDto> getAllDto(String cursor, Integer size) {
+        int limit = Pagination.getLimit(size);
+        Long afterId = Pagination.decodeCursor(cursor, 1, keys -> Long.valueOf(keys[0]));
+        List<User> users = userRepository.findAllByIdGreaterThanOrderByIdAsc(
+                afterId != null ? afterId : 0L, PageRequest.of(0, limit + 1));
+        return Pagination.toPage(userMapper.mapEntityToDto(users), limit,
+                user -> Pagination.encodeCursor(user.getId()));
     }
 
     @Override
@@ -113,6 +128,8 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         } else {
             user.setPassword(passwordEncoder.encode(passwordRequest.getNewPassword()));
             userRepository.save(user);
+            revocationRegistry.revokeTokensIssuedBefore(user.getId(), System.currentTimeMillis());
+            refreshTokenRepository.deleteAllByUserId(user.getId());
             return true;
         }
     }
@@ -120,6 +137,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     @Override
     public boolean deleteById(Long id) {
         userRepository.deleteById(id);
+        revocationRegistry.revokeUser(id);
         return userRepository.existsById(id);
     }
 
@@ -128,6 +146,17 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         return userMapper.mapEntityToJwt(findByUsername(username));
     }
 
+    /**
+     * Сохранить хэш пароля, пересчитанный с текущими настройками после успешного входа.
+     * Пароль не меняется, поэтому выданные токены остаются действительными
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = findByUsername(userDetails.getUsername());
+        user.setPassword(newPassword);
+        return userMapper.mapEntityToJwt(userRepository.save(user));
+    }
+
     /**
      * Найти пользователя по id
      */
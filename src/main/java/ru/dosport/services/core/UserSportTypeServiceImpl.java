@@ -5,20 +5,19 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import ru.dosport.dto.UserSportTypeDto;
 import ru.dosport.entities.UserSportType;
+import ru.dosport.exceptions.DataBadRequestException;
 import ru.dosport.exceptions.DataNotFoundException;
 import ru.dosport.exceptions.DataNotSavedException;
 import ru.dosport.mappers.UserSportTypeMapper;
 import ru.dosport.repositories.UserSportTypeRepository;
+import ru.dosport.services.api.SportTypeService;
 import ru.dosport.services.api.UserService;
 import ru.dosport.services.api.UserSportTypeService;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import javax.transaction.Transactional;
+import java.util.*;
 
-import static ru.dosport.helpers.Messages.DATA_WAS_NOT_SAVED;
-import static ru.dosport.helpers.Messages.USER_SPORT_NOT_FOUND_BY_USER_AND_SPORT_TYPE;
+import static ru.dosport.helpers.Messages.*;
 
 /**
  * Реализация сервиса видов спорта пользователя
@@ -31,6 +30,7 @@ public class UserSportTypeServiceImpl implements UserSportTypeService {
     private final UserSportTypeRepository userSportTypeRepository;
     private final UserSportTypeMapper userSportTypeMapper;
     private final UserService userService;
+    private final SportTypeService sportTypeService;
 
     @Override
     public List<UserSportTypeDto> getAllDtoByUserId(Long id) {
@@ -42,10 +42,29 @@ public class UserSportTypeServiceImpl implements UserSportTypeService {
         return userSportTypeMapper.mapEntityToDto(userSportTypeRepository.findAllByUserId(userService.getIdByAuthentication(authentication)));
     }
 
+    @Transactional
     @Override
     public List<UserSportTypeDto> updateByUserId(List<UserSportTypeDto> dtoList, Authentication authentication) {
-        userSportTypeMapper.mapDtoToEntity(dtoList).forEach(s -> saveOrUpdate(userService.getIdByAuthentication(authentication), s.getSportTypeId(), s.getLevel()));
-        return getAllDtoByUserId(authentication);
+        long userId = userService.getIdByAuthentication(authentication);
+        Set<Short> sportTypeIds = new HashSet<>();
+        for (UserSportTypeDto dto : dtoList) {
+            if (dto.getSportTypeId() == null) {
+                throw new DataBadRequestException(DATA_NOT_BLANK + "Вид спорта");
+            }
+            if (!sportTypeIds.add(dto.getSportTypeId())) {
+                throw new DataBadRequestException(String.format(DUPLICATE_SPORT_TYPE, dto.getSportTypeId()));
+            }
+            if (dto.getLevel() < 0 || dto.getLevel() > 5) {
+                throw new DataBadRequestException(INVALID_SPORT_LEVEL);
+            }
+            // Проверка по справочнику в памяти, без обращения к базе данных
+            sportTypeService.getSportTypeDtoById(dto.getSportTypeId());
+        }
+        List<UserSportType> sportTypes = userSportTypeMapper.mapDtoToEntity(dtoList);
+        sportTypes.forEach(sportType -> sportType.setUserId(userId));
+        userSportTypeRepository.replaceAllByUserId(userId, sportTypes);
+        sportTypes.sort(Comparator.comparing(UserSportType::getSportTypeId));
+        return userSportTypeMapper.mapEntityToDto(sportTypes);
     }
 
     @Override
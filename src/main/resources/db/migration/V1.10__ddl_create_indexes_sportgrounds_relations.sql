@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS sportgrounds_sport_type_sportground_idx ON sportgrounds_sport_type (sportground_id);
+
+CREATE INDEX IF NOT EXISTS events_sportground_idx ON events (sportground_id);
+
+CREATE INDEX IF NOT EXISTS sportground_comments_sportground_idx ON sportground_comments (sportground_id);
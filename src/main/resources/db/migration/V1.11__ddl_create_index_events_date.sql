@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS events_date_id_idx ON events (date, id);
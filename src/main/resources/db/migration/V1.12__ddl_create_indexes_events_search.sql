@@ -0,0 +1,8 @@
+CREATE INDEX IF NOT EXISTS events_sport_type_date_idx ON events (sport_type_id, date, id);
+
+CREATE INDEX IF NOT EXISTS events_sportground_date_idx ON events (sportground_id, date, id);
+
+CREATE INDEX IF NOT EXISTS events_organizer_date_idx ON events (organizer_user_id, date, id);
+
+-- Покрывается индексом events_sportground_date_idx
+DROP INDEX IF EXISTS events_sportground_idx;
@@ -0,0 +1,8 @@
+-- Внешний ключ event_id ошибочно ссылался на саму таблицу event_member.
+-- Участники удаляются вместе с мероприятием, как и записи календарей пользователей
+ALTER TABLE event_member DROP CONSTRAINT IF EXISTS fke7ttqbdxnpwren6fg3wktsash;
+
+ALTER TABLE event_member ADD CONSTRAINT event_member_event_id_fkey
+    FOREIGN KEY (event_id) REFERENCES events ON DELETE CASCADE NOT VALID;
+
+CREATE INDEX IF NOT EXISTS event_member_event_idx ON event_member (event_id);
@@ -0,0 +1,6 @@
+-- Идентификаторы выделяются Hibernate блоками по 50 (allocationSize), что позволяет пакетную вставку
+ALTER SEQUENCE sportgrounds_id_seq INCREMENT BY 50;
+
+ALTER SEQUENCE event_member_id_seq INCREMENT BY 50;
+
+ALTER SEQUENCE sportground_comments_id_seq INCREMENT BY 50;
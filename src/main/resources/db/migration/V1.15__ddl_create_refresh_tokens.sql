@@ -0,0 +1,18 @@
+-- Токены обновления: одна строка на сеанс входа, хранится только SHA-256 хэш действующего токена.
+-- При обновлении хэш заменяется новым, поэтому таблица не растет с каждым обновлением токена доступа.
+-- Сеанс в токене указывается случайным handle, а не последовательным id, чтобы его нельзя было подобрать.
+-- Хэш замененного токена сохраняется в previous_token_hash: его повторное предъявление означает похищение токена
+DROP TABLE IF EXISTS refresh_tokens;
+
+CREATE TABLE refresh_tokens
+(
+    id                  BIGSERIAL,
+    handle              VARCHAR(32) NOT NULL UNIQUE,
+    user_id             BIGINT      NOT NULL REFERENCES users ON DELETE CASCADE,
+    token_hash          BYTEA       NOT NULL,
+    previous_token_hash BYTEA,
+    expires_at          TIMESTAMP   NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX refresh_tokens_user_idx ON refresh_tokens (user_id);
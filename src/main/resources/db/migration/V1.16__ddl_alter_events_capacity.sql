@@ -0,0 +1,30 @@
+-- Ограничение количества участников мероприятия и лист ожидания.
+-- members_count - число принятых участников, изменяется только условным UPDATE при вступлении и выходе,
+-- waitlist_counter - счетчик для номеров в очереди ожидания, выдаваемых под блокировкой строки мероприятия
+ALTER TABLE events ADD COLUMN max_members INTEGER;
+
+ALTER TABLE events ADD COLUMN members_count INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE events ADD COLUMN waitlist_counter BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE event_member ADD COLUMN member_status VARCHAR(16) NOT NULL DEFAULT 'ACCEPTED';
+
+ALTER TABLE event_member ADD COLUMN queue_number BIGINT;
+
+-- Пользователь может быть участником мероприятия только один раз
+DELETE FROM event_member m
+USING event_member d
+WHERE m.event_id = d.event_id AND m.user_id = d.user_id AND m.id > d.id;
+
+UPDATE events e SET members_count = (SELECT count(*) FROM event_member m WHERE m.event_id = e.id);
+
+ALTER TABLE events ADD CONSTRAINT events_members_count_check
+    CHECK (members_count >= 0 AND (max_members IS NULL OR members_count <= max_members));
+
+ALTER TABLE event_member ADD CONSTRAINT event_member_event_user_key UNIQUE (event_id, user_id);
+
+-- Уникальный индекс начинается с event_id и заменяет прежний индекс
+DROP INDEX IF EXISTS event_member_event_idx;
+
+-- Очередь ожидания мероприятия в порядке вступления
+CREATE INDEX event_member_waitlist_idx ON event_member (event_id, queue_number) WHERE member_status = 'WAITING';
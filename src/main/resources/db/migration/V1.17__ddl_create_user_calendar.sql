@@ -0,0 +1,25 @@
+-- Календарь пользователя: копия данных мероприятий, в которых он участвует.
+-- Первичный ключ начинается с (user_id, date), поэтому календарь за период читается одним просмотром диапазона индекса
+DROP TABLE IF EXISTS user_calendar;
+
+CREATE TABLE user_calendar
+(
+    user_id        BIGINT      NOT NULL REFERENCES users ON DELETE CASCADE,
+    date           DATE        NOT NULL,
+    event_id       BIGINT      NOT NULL REFERENCES events ON DELETE CASCADE,
+    start_time     TIME        NOT NULL,
+    end_time       TIME,
+    sport_type_id  SMALLINT    NOT NULL,
+    sportground_id BIGINT      NOT NULL,
+    member_status  VARCHAR(16) NOT NULL,
+    PRIMARY KEY (user_id, date, event_id)
+);
+
+-- Обновление календарей участников при изменении мероприятия
+CREATE INDEX user_calendar_event_idx ON user_calendar (event_id);
+
+INSERT INTO user_calendar (user_id, date, event_id, start_time, end_time, sport_type_id, sportground_id, member_status)
+SELECT m.user_id, e.date, e.id, e.start_time, e.end_time, e.sport_type_id, e.sportground_id, m.member_status
+FROM event_member m
+         JOIN events e ON e.id = m.event_id
+WHERE m.user_id IS NOT NULL;
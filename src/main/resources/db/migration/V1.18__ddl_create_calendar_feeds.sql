@@ -0,0 +1,13 @@
+-- Подписка на календарь пользователя в формате iCalendar.
+-- version увеличивается при каждом изменении календаря и вместе с updated_at служит ETag и Last-Modified,
+-- поэтому неизмененный календарь проверяется одним поиском по уникальному индексу token
+DROP TABLE IF EXISTS calendar_feeds;
+
+CREATE TABLE calendar_feeds
+(
+    user_id    BIGINT      NOT NULL REFERENCES users ON DELETE CASCADE,
+    token      VARCHAR(64) NOT NULL UNIQUE,
+    version    BIGINT      NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP   NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id)
+);
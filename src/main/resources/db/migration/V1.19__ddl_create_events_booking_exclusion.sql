@@ -0,0 +1,40 @@
+-- Площадка не может быть занята двумя мероприятиями одновременно.
+-- Время мероприятия - полуоткрытый интервал [начало, завершение): мероприятие без времени завершения длится час,
+-- завершающееся не позже времени начала - заканчивается на следующий день
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE OR REPLACE FUNCTION event_period(event_date DATE, start_time TIME, end_time TIME) RETURNS TSRANGE AS $$
+    SELECT tsrange(event_date + start_time, CASE
+        WHEN end_time IS NULL THEN event_date + start_time + INTERVAL '1 hour'
+        WHEN end_time > start_time THEN event_date + end_time
+        ELSE event_date + 1 + end_time
+    END)
+$$ LANGUAGE SQL IMMUTABLE;
+
+-- Мероприятие, созданное до появления ограничения и пересекающееся с более ранним мероприятием на той же площадке.
+-- Такие мероприятия не участвуют в ограничении, пока пересечение не будет разрешено вручную:
+-- после изменения или удаления мероприятий флаг сбрасывается, и ограничение пересоздается без условия WHERE
+ALTER TABLE events ADD COLUMN booking_conflict BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Индекс ограничения используется и для поиска занятого времени площадки
+DO $$
+DECLARE
+    conflicts TEXT;
+BEGIN
+    UPDATE events b SET booking_conflict = TRUE
+    WHERE EXISTS (SELECT 1 FROM events a WHERE a.sportground_id = b.sportground_id AND a.id < b.id
+        AND event_period(a.date, a.start_time, a.end_time) && event_period(b.date, b.start_time, b.end_time));
+
+    SELECT string_agg(CAST(id AS TEXT), ', ' ORDER BY id) INTO conflicts FROM events WHERE booking_conflict;
+    IF conflicts IS NULL THEN
+        ALTER TABLE events ADD CONSTRAINT events_sportground_period_excl
+            EXCLUDE USING gist (sportground_id WITH =, event_period(date, start_time, end_time) WITH &&);
+    ELSE
+        RAISE WARNING 'Мероприятия пересекаются по времени с более ранними на той же площадке '
+            'и исключены из ограничения (events.booking_conflict): %', conflicts;
+        ALTER TABLE events ADD CONSTRAINT events_sportground_period_excl
+            EXCLUDE USING gist (sportground_id WITH =, event_period(date, start_time, end_time) WITH &&)
+            WHERE (NOT booking_conflict);
+    END IF;
+END
+$$;
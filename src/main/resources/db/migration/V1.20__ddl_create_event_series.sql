@@ -0,0 +1,40 @@
+-- Повторяющиеся мероприятия. Серия хранит правило повторения: каждые interval_weeks недель
+-- по дням недели days_of_week (битовая маска, понедельник - младший бит) с start_date до end_date
+-- или бессрочно. Мероприятие серии создается в events, только когда в него вступает первый участник
+CREATE TABLE event_series
+(
+    id BIGSERIAL NOT NULL
+        CONSTRAINT event_series_pkey
+            PRIMARY KEY,
+    start_date DATE NOT NULL,
+    end_date DATE,
+    start_time TIME NOT NULL,
+    end_time TIME,
+    interval_weeks SMALLINT NOT NULL DEFAULT 1,
+    days_of_week SMALLINT NOT NULL,
+    max_members INTEGER,
+    organizer_user_id BIGINT NOT NULL
+        CONSTRAINT event_series_organizer_fk
+            REFERENCES users ON DELETE CASCADE,
+    sportground_id BIGINT NOT NULL
+        CONSTRAINT event_series_sportground_fk
+            REFERENCES sportgrounds,
+    sport_type_id SMALLINT NOT NULL
+        CONSTRAINT event_series_sport_type_fk
+            REFERENCES sport_types,
+    CONSTRAINT event_series_rule_check CHECK (interval_weeks BETWEEN 1 AND 52
+        AND days_of_week BETWEEN 1 AND 127 AND (end_date IS NULL OR end_date >= start_date)
+        AND (max_members IS NULL OR max_members >= 1))
+);
+
+-- Серии, действующие в периоде, и серии площадки при проверке занятости
+CREATE INDEX event_series_start_date_idx ON event_series (start_date);
+
+CREATE INDEX event_series_sportground_idx ON event_series (sportground_id, start_date);
+
+-- Мероприятие серии на дату создается один раз, после удаления серии остается отдельным мероприятием
+ALTER TABLE events ADD COLUMN series_id BIGINT
+    CONSTRAINT events_series_fk
+        REFERENCES event_series ON DELETE SET NULL;
+
+ALTER TABLE events ADD CONSTRAINT events_series_date_key UNIQUE (series_id, date);
@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS sportgrounds_location_idx ON sportgrounds USING gist (location);
+
+CREATE INDEX IF NOT EXISTS sportgrounds_city_idx ON sportgrounds (city);
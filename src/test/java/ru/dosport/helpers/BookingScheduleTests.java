@@ -0,0 +1,74 @@
+package ru.dosport.helpers;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Проверка поиска пересечений и свободного времени в расписании площадок.
+ */
+public class BookingScheduleTests {
+
+    private static final long GROUND = 1;
+    private static final LocalDate DATE = LocalDate.of(2020, 6, 1);
+
+    private final BookingSchedule schedule = new BookingSchedule();
+
+    @Test
+    public void findsConflictsWithHalfOpenIntervals() {
+        schedule.put(booking(1, "10:00", "12:00"));
+        schedule.put(booking(2, "14:00", null));
+        // Мероприятие, завершающееся раньше начала, заканчивается на следующий день
+        schedule.put(booking(3, "23:00", "01:00"));
+
+        assertNull(schedule.findConflict(GROUND, at("08:00"), at("10:00"), null));
+        assertNull(schedule.findConflict(GROUND, at("12:00"), at("14:00"), null));
+        assertEquals(1, schedule.findConflict(GROUND, at("09:00"), at("10:30"), null).getEventId());
+        assertEquals(1, schedule.findConflict(GROUND, at("11:00"), at("11:30"), null).getEventId());
+        assertEquals(2, schedule.findConflict(GROUND, at("14:30"), at("16:00"), null).getEventId());
+        assertNull(schedule.findConflict(GROUND, at("15:00"), at("16:00"), null));
+        assertEquals(3, schedule.findConflict(GROUND, DATE.plusDays(1).atTime(0, 30),
+                DATE.plusDays(1).atTime(2, 0), null).getEventId());
+        // Изменяемое мероприятие не пересекается само с собой
+        assertNull(schedule.findConflict(GROUND, at("10:30"), at("12:00"), 1L));
+        assertNull(schedule.findConflict(GROUND + 1, at("10:30"), at("12:00"), null));
+    }
+
+    @Test
+    public void findsFreeSlotsAndMovesBookings() {
+        schedule.put(booking(1, "10:00", "12:00"));
+        schedule.put(booking(2, "12:30", "14:00"));
+
+        List<BookingSchedule.Slot> slots = schedule.findFreeSlots(GROUND, at("09:00"), at("18:00"), Duration.ofHours(1));
+        assertEquals(2, slots.size());
+        assertEquals(at("09:00"), slots.get(0).getStart());
+        assertEquals(at("10:00"), slots.get(0).getEnd());
+        assertEquals(at("14:00"), slots.get(1).getStart());
+        assertEquals(at("18:00"), slots.get(1).getEnd());
+
+        // Перенос мероприятия освобождает прежнее время
+        schedule.put(booking(1, "16:00", "17:00"));
+        assertNull(schedule.findConflict(GROUND, at("10:00"), at("12:00"), null));
+        assertEquals(3, schedule.findFreeSlots(GROUND, at("09:00"), at("18:00"), Duration.ZERO).size());
+
+        schedule.remove(2);
+        schedule.removeEndedBefore(at("17:00"));
+        assertEquals(0, schedule.size());
+    }
+
+    private static BookingSchedule.Booking booking(long eventId, String start, String end) {
+        return BookingSchedule.Booking.of(eventId, GROUND, DATE, LocalTime.parse(start),
+                end == null ? null : LocalTime.parse(end));
+    }
+
+    private static LocalDateTime at(String time) {
+        return DATE.atTime(LocalTime.parse(time));
+    }
+}
@@ -0,0 +1,67 @@
+package ru.dosport.helpers;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Проверка разбора CSV по RFC 4180: входной текст и ожидаемые записи.
+ */
+@RunWith(Parameterized.class)
+public class CsvReaderTests {
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> cases() {
+        return Arrays.asList(new Object[][] {
+                {"простые поля", "a,b,c\n", records(fields("a", "b", "c"))},
+                {"запятая в кавычках", "a,\"b,c\",d\n", records(fields("a", "b,c", "d"))},
+                {"экранированные кавычки", "\"он сказал \"\"да\"\"\",x\n", records(fields("он сказал \"да\"", "x"))},
+                {"пустое поле в кавычках", "\"\",x\n", records(fields("", "x"))},
+                {"CRLF в кавычках", "\"строка 1\r\nстрока 2\",z\r\n", records(fields("строка 1\r\nстрока 2", "z"))},
+                {"пустое последнее поле", "a,b,\n", records(fields("a", "b", ""))},
+                {"пустое последнее поле в конце файла", "a,b,", records(fields("a", "b", ""))},
+                {"записи через CRLF", "a,b\r\nc,d\r\n", records(fields("a", "b"), fields("c", "d"))},
+                {"последняя запись без перевода строки", "a\nb", records(fields("a"), fields("b"))},
+                {"пустые строки между записями", "a\n\r\n\nb\n", records(fields("a"), fields("b"))},
+        });
+    }
+
+    @Parameterized.Parameter(0)
+    public String name;
+
+    @Parameterized.Parameter(1)
+    public String input;
+
+    @Parameterized.Parameter(2)
+    public List<List<String>> expected;
+
+    @Test
+    public void readsRecords() throws IOException {
+        List<List<String>> actual = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(input), ',')) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                actual.add(record);
+            }
+        }
+        assertEquals(expected, actual);
+    }
+
+    @SafeVarargs
+    private static List<List<String>> records(List<String>... records) {
+        return Arrays.asList(records);
+    }
+
+    private static List<String> fields(String... fields) {
+        return Arrays.asList(fields);
+    }
+}
@@ -0,0 +1,42 @@
+package ru.dosport.helpers;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Проверка прямоугольника, описанного вокруг окружности на поверхности Земли.
+ */
+public class GeoUtilsTests {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void boxContainsWholeCircle() {
+        for (double latitude : new double[] {0.0, 35.0, 55.75, 69.0, -80.0}) {
+            for (double radius : new double[] {0.5, 2.0, 100.0}) {
+                double dLatitude = GeoUtils.latitudeDelta(radius);
+                double dLongitude = GeoUtils.longitudeDelta(latitude, radius);
+                for (int bearing = 0; bearing < 360; bearing++) {
+                    double[] point = destination(latitude, 0.0, radius, Math.toRadians(bearing));
+                    assertEquals(radius, GeoUtils.distance(latitude, 0.0, point[0], point[1]), 1e-6);
+                    assertTrue(Math.abs(point[0] - latitude) <= dLatitude + EPSILON);
+                    assertTrue(Math.abs(point[1]) <= dLongitude + EPSILON);
+                }
+            }
+        }
+    }
+
+    /**
+     * Точка на заданном расстоянии и азимуте от исходной
+     */
+    private static double[] destination(double latitude, double longitude, double distance, double bearing) {
+        double d = distance / GeoUtils.EARTH_RADIUS_KM;
+        double phi = Math.toRadians(latitude);
+        double phi2 = Math.asin(Math.sin(phi) * Math.cos(d) + Math.cos(phi) * Math.sin(d) * Math.cos(bearing));
+        double lambda2 = Math.toRadians(longitude) + Math.atan2(Math.sin(bearing) * Math.sin(d) * Math.cos(phi),
+                Math.cos(d) - Math.sin(phi) * Math.sin(phi2));
+        return new double[] {Math.toDegrees(phi2), Math.toDegrees(lambda2)};
+    }
+}
@@ -0,0 +1,49 @@
+package ru.dosport.helpers;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Проверка переноса длинных строк и экранирования значений iCalendar.
+ */
+public class ICalendarWriterTests {
+
+    @Test
+    public void foldsLongLinesByBytesWithoutSplittingCharacters() throws IOException {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            // Кириллица занимает 2 байта в UTF-8
+            value.append('Ф');
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ICalendarWriter writer = new ICalendarWriter(output);
+        writer.text("SUMMARY", value.toString());
+        writer.endCalendar();
+
+        String result = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        String[] lines = result.split("\r\n");
+        for (String line : lines) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75);
+        }
+        // Склеенные строки без пробела продолжения дают исходное значение
+        String unfolded = result.replace("\r\n ", "");
+        assertEquals("SUMMARY:" + value + "\r\nEND:VCALENDAR\r\n", unfolded);
+    }
+
+    @Test
+    public void escapesTextValues() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ICalendarWriter writer = new ICalendarWriter(output);
+        writer.text("LOCATION", "Park, field 1; north\\side\nentrance");
+        writer.endCalendar();
+
+        assertEquals("LOCATION:Park\\, field 1\\; north\\\\side\\nentrance\r\nEND:VCALENDAR\r\n",
+                new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
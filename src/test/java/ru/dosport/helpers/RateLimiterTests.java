@@ -0,0 +1,127 @@
+package ru.dosport.helpers;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Проверка ограничителя частоты запросов с управляемым временем.
+ */
+public class RateLimiterTests {
+
+    private static final int CAPACITY = 5;
+    private static final long REFILL_PERIOD = TimeUnit.SECONDS.toNanos(1);
+
+    // Время начинается с отрицательного значения, как может быть у System.nanoTime
+    private final AtomicLong clock = new AtomicLong(-TimeUnit.DAYS.toNanos(1));
+
+    private final RateLimiter limiter = new RateLimiter(CAPACITY, REFILL_PERIOD, 1000, true, clock::get);
+
+    @Test
+    public void allowsBurstAndRefillsOverTime() {
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, limiter.tryAcquire("user"));
+        }
+        assertEquals(REFILL_PERIOD, limiter.tryAcquire("user"));
+        // Корзины разных ключей независимы
+        assertEquals(0, limiter.tryAcquire("other"));
+
+        clock.addAndGet(REFILL_PERIOD / 2);
+        assertEquals(REFILL_PERIOD / 2, limiter.tryAcquire("user"));
+        clock.addAndGet(REFILL_PERIOD / 2);
+        assertEquals(0, limiter.tryAcquire("user"));
+        assertTrue(limiter.tryAcquire("user") > 0);
+
+        // После простоя корзина пополняется не больше чем до емкости
+        clock.addAndGet(REFILL_PERIOD * CAPACITY * 10);
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, limiter.tryAcquire("user"));
+        }
+        assertTrue(limiter.tryAcquire("user") > 0);
+    }
+
+    @Test
+    public void allowsExactlyCapacityUnderContention() throws Exception {
+        int threads = 16;
+        int attemptsPerThread = 10_000;
+        int rounds = 3;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                AtomicInteger allowed = new AtomicInteger();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < attemptsPerThread; i++) {
+                            if (limiter.tryAcquire("user") == 0) {
+                                allowed.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+                // Пока время стоит, из полной корзины выдается ровно ее емкость, а затем один запрос за период
+                assertEquals(round == 0 ? CAPACITY : 1, allowed.get());
+                clock.addAndGet(REFILL_PERIOD);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void evictsRefilledKeys() {
+        RateLimiter small = new RateLimiter(CAPACITY, REFILL_PERIOD, 10, true, clock::get);
+        for (int i = 0; i < 10; i++) {
+            small.tryAcquire("user" + i);
+        }
+        clock.addAndGet(REFILL_PERIOD);
+        small.tryAcquire("new");
+        assertEquals(1, small.size());
+    }
+
+    @Test
+    public void capsKeysWhileAllBucketsAreInUse() {
+        RateLimiter shared = new RateLimiter(CAPACITY, REFILL_PERIOD, 10, true, clock::get);
+        RateLimiter open = new RateLimiter(CAPACITY, REFILL_PERIOD, 10, false, clock::get);
+        for (int i = 0; i < 10; i++) {
+            shared.tryAcquire("user" + i);
+            open.tryAcquire("user" + i);
+        }
+
+        // Корзины не пополнены: очистка ничего не удаляет и до следующего интервала не повторяется,
+        // а новые ключи расходуют одну общую корзину
+        for (int i = 0; i < CAPACITY; i++) {
+            assertEquals(0, shared.tryAcquire("new" + i));
+        }
+        for (int i = CAPACITY; i < 1000; i++) {
+            assertTrue(shared.tryAcquire("new" + i) > 0);
+            assertEquals(0, open.tryAcquire("new" + i));
+        }
+        assertEquals(10, shared.size());
+        assertEquals(10, open.size());
+        // Известные ключи учитываются в своих корзинах
+        assertEquals(0, shared.tryAcquire("user0"));
+
+        clock.addAndGet(REFILL_PERIOD * CAPACITY);
+        assertEquals(0, shared.tryAcquire("new"));
+        assertEquals(1, shared.size());
+    }
+}
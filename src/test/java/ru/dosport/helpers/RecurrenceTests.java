@@ -0,0 +1,52 @@
+package ru.dosport.helpers;
+
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Проверка вычисления дат повторяющихся мероприятий.
+ */
+public class RecurrenceTests {
+
+    // Среда
+    private static final LocalDate START = LocalDate.of(2020, 6, 3);
+
+    @Test
+    public void expandsEveryOtherWeekFromStartWeek() {
+        Recurrence recurrence = new Recurrence(START, null, 2,
+                Recurrence.toMask(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.SATURDAY)));
+
+        // Понедельник недели начала раньше даты начала и не входит в серию
+        assertEquals(Arrays.asList(LocalDate.of(2020, 6, 6), LocalDate.of(2020, 6, 15),
+                LocalDate.of(2020, 6, 20), LocalDate.of(2020, 6, 29), LocalDate.of(2020, 7, 4)),
+                recurrence.expand(LocalDate.of(2020, 6, 1), LocalDate.of(2020, 7, 4)));
+        // Период, начинающийся в неделе без повторений
+        assertEquals(Arrays.asList(LocalDate.of(2020, 6, 15), LocalDate.of(2020, 6, 20)),
+                recurrence.expand(LocalDate.of(2020, 6, 9), LocalDate.of(2020, 6, 21)));
+
+        for (LocalDate date = START.minusDays(10); date.isBefore(START.plusDays(100)); date = date.plusDays(1)) {
+            List<LocalDate> dates = recurrence.expand(date, date);
+            assertEquals(!dates.isEmpty(), recurrence.occursOn(date));
+        }
+    }
+
+    @Test
+    public void stopsAtEndDate() {
+        Recurrence recurrence = new Recurrence(START, START.plusWeeks(2), 1,
+                Recurrence.toMask(EnumSet.of(DayOfWeek.WEDNESDAY)));
+
+        assertEquals(3, recurrence.expand(START.minusYears(1), START.plusYears(1)).size());
+        assertTrue(recurrence.occursOn(START.plusWeeks(2)));
+        assertFalse(recurrence.occursOn(START.plusWeeks(3)));
+        assertEquals(EnumSet.of(DayOfWeek.WEDNESDAY), Recurrence.fromMask(recurrence.getDaysOfWeek()));
+    }
+}
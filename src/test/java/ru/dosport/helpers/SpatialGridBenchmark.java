@@ -0,0 +1,124 @@
+package ru.dosport.helpers;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение поиска площадок по сетке в памяти с полным перебором.
+ * Поиск по базе данных измеряет {@link SportGroundSqlBenchmark}.
+ *
+ * Запуск: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=SpatialGridBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpatialGridBenchmark {
+
+    // Область города, в которой расположены площадки
+    static final double MIN_LATITUDE = 55.5;
+    static final double MIN_LONGITUDE = 37.3;
+    static final double LATITUDE_RANGE = 0.5;
+    static final double LONGITUDE_RANGE = 0.6;
+    static final int SPORT_TYPES = 5;
+
+    // Радиус поиска, км
+    static final double RADIUS = 2.0;
+
+    // Дата и время начала искомого интервала свободных площадок
+    static final LocalDate DATE = LocalDate.of(2020, 6, 6);
+    static final int BOOKED_HOUR = 10;
+
+    @Param({"10000", "100000", "1000000"})
+    private int grounds;
+
+    // Размер ячейки сетки, настройка sportgrounds.grid.cell-size
+    @Param({"0.05", "0.01"})
+    private double cellSize;
+
+    private SpatialGrid grid;
+
+    // Расписание площадок: половина площадок занята в искомое время
+    private BookingSchedule schedule;
+
+    private List<SpatialGrid.Entry> entries;
+
+    private double[][] points;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        entries = new ArrayList<>(grounds);
+        for (int i = 0; i < grounds; i++) {
+            entries.add(new SpatialGrid.Entry(i,
+                    MIN_LATITUDE + random.nextDouble() * LATITUDE_RANGE,
+                    MIN_LONGITUDE + random.nextDouble() * LONGITUDE_RANGE,
+                    new short[] {(short) random.nextInt(SPORT_TYPES)}));
+        }
+        grid = new SpatialGrid(cellSize);
+        grid.putAll(entries);
+
+        schedule = new BookingSchedule();
+        for (int i = 0; i < grounds; i++) {
+            int hour = random.nextInt(2) == 0 ? BOOKED_HOUR : BOOKED_HOUR + 4;
+            schedule.put(BookingSchedule.Booking.of(i, i, DATE, LocalTime.of(hour, 0), LocalTime.of(hour + 2, 0)));
+        }
+
+        points = new double[1024][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[] {MIN_LATITUDE + random.nextDouble() * LATITUDE_RANGE,
+                    MIN_LONGITUDE + random.nextDouble() * LONGITUDE_RANGE};
+        }
+    }
+
+    @Benchmark
+    public List<SpatialGrid.Result> gridWithinRadius() {
+        double[] point = nextPoint();
+        return grid.findWithin(point[0], point[1], RADIUS, (short) 1, 20);
+    }
+
+    @Benchmark
+    public List<SpatialGrid.Result> gridAvailableWithinRadius() {
+        double[] point = nextPoint();
+        LocalDateTime from = DATE.atTime(BOOKED_HOUR, 0);
+        LocalDateTime to = DATE.atTime(BOOKED_HOUR + 2, 0);
+        return grid.findWithin(point[0], point[1], RADIUS, (short) 1, 20,
+                entry -> schedule.findConflict(entry.getId(), from, to, null) == null);
+    }
+
+    @Benchmark
+    public List<SpatialGrid.Result> gridNearest() {
+        double[] point = nextPoint();
+        return grid.findNearest(point[0], point[1], 10, null);
+    }
+
+    @Benchmark
+    public int linearScanWithinRadius() {
+        double[] point = nextPoint();
+        int found = 0;
+        for (SpatialGrid.Entry entry : entries) {
+            if (entry.hasSportType((short) 1)
+                    && GeoUtils.distance(point[0], point[1], entry.getLatitude(), entry.getLongitude()) <= RADIUS) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private double[] nextPoint() {
+        next = (next + 1) & (points.length - 1);
+        return points[next];
+    }
+}
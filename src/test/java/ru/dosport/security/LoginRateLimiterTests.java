@@ -0,0 +1,37 @@
+package ru.dosport.security;
+
+import org.junit.Test;
+import ru.dosport.exceptions.TooManyRequestsException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Проверка ключей адресов клиентов и ограничения попыток входа с адресов одной подсети IPv6.
+ */
+public class LoginRateLimiterTests {
+
+    @Test
+    public void groupsIpv6AddressesBySubnet() {
+        assertEquals("192.168.1.10", LoginRateLimiter.getAddressKey("192.168.1.10"));
+        assertEquals("192.168.1.10", LoginRateLimiter.getAddressKey("::ffff:192.168.1.10"));
+        assertEquals("2001:db8:1:2:0:0:0:0/64", LoginRateLimiter.getAddressKey("2001:db8:1:2:aaaa:bbbb:cccc:dddd"));
+        assertEquals("2001:db8:1:2:0:0:0:0/64", LoginRateLimiter.getAddressKey("2001:0db8:0001:0002::1"));
+        assertEquals("2001:db8:1:3:0:0:0:0/64", LoginRateLimiter.getAddressKey("2001:db8:1:3::1"));
+    }
+
+    @Test
+    public void limitsAttemptsFromWholeIpv6Subnet() {
+        LoginRateLimiter limiter = new LoginRateLimiter(100, 60_000, 3, 60_000);
+        for (int i = 1; i <= 3; i++) {
+            limiter.check("user" + i, "2001:db8:1:2::" + i);
+        }
+        try {
+            limiter.check("user4", "2001:db8:1:2::4");
+            fail();
+        } catch (TooManyRequestsException e) {
+            // Адреса одной подсети расходуют одну корзину
+        }
+        limiter.check("user4", "2001:db8:1:3::4");
+    }
+}
@@ -0,0 +1,61 @@
+package ru.dosport.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность входа в зависимости от сложности BCrypt, настройка password.bcrypt.strength.
+ * Тесты выполняются во всех потоках процессора, как пул хэширования паролей, поэтому результат -
+ * ориентировочное количество входов в секунду на один узел.
+ *
+ * Запуск: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=PasswordEncoderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(Threads.MAX)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    static final String PASSWORD = "password";
+
+    @Param({"8", "10", "12", "14"})
+    private int strength;
+
+    private UpgradablePasswordEncoder encoder;
+
+    private String currentHash;
+
+    private String legacyHash;
+
+    @Setup
+    public void setup() {
+        encoder = new UpgradablePasswordEncoder(strength);
+        currentHash = encoder.encode(PASSWORD);
+        legacyHash = new BCryptPasswordEncoder().encode(PASSWORD);
+    }
+
+    /**
+     * Вход пользователя, хэш которого уже имеет текущую сложность
+     */
+    @Benchmark
+    public boolean login() {
+        return encoder.matches(PASSWORD, currentHash);
+    }
+
+    /**
+     * Первый вход после смены сложности: проверка старого хэша и вычисление нового
+     */
+    @Benchmark
+    public String loginWithUpgrade() {
+        if (encoder.matches(PASSWORD, legacyHash) && encoder.upgradeEncoding(legacyHash)) {
+            return encoder.encode(PASSWORD);
+        }
+        return legacyHash;
+    }
+}
@@ -0,0 +1,69 @@
+package ru.dosport.security;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.dosport.exceptions.TooManyRequestsException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Проверка выполнения задач в пуле хэширования паролей.
+ */
+public class PasswordHashingExecutorTests {
+
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(executor, "threads", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 10);
+        executor.init();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void completesWithTaskExceptionWithoutWrapping() {
+        // Обработчик ошибок контроллера получает исключение, завершившее результат
+        Throwable error = executor.submit(() -> {
+            throw new BadCredentialsException("Неверный пароль");
+        }).handle((result, e) -> e).join();
+
+        assertTrue(error instanceof BadCredentialsException);
+        assertEquals("Неверный пароль", error.getMessage());
+    }
+
+    @Test
+    public void rejectsTaskWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // Единственный поток занят, очередь заполнена
+            for (int i = 0; i < 11; i++) {
+                executor.submit(() -> {
+                    try {
+                        return release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            }
+            executor.submit(() -> true);
+            fail();
+        } catch (TooManyRequestsException e) {
+            assertEquals(1, (long) executor.getStatistics().get("rejected"));
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package ru.dosport.services.core;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+import ru.dosport.dto.EventDto;
+import ru.dosport.dto.KeysetPage;
+import ru.dosport.security.JwtUser;
+import ru.dosport.services.api.EventService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Проверка количества запросов при чтении мероприятий, изменения и удаления мероприятий с участниками.
+ * Выполняется на встроенной базе данных PostgreSQL со схемой из миграций Flyway.
+ */
+@RunWith(SpringRunner.class)
+@AutoConfigureEmbeddedDatabase
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class EventServiceImplTests {
+
+    // Количество мероприятий и участников каждого мероприятия в тестовых данных
+    private static final int EVENTS = 30;
+    private static final int MEMBERS = 5;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long eventId;
+
+    private Long organizerId;
+
+    private Long[] userIds;
+
+    @Before
+    public void setUp() {
+        // Пользователь участвует в мероприятии не больше одного раза, поэтому у каждого участника свой пользователь
+        userIds = new Long[MEMBERS];
+        for (int j = 0; j < MEMBERS; j++) {
+            userIds[j] = jdbcTemplate.queryForObject("INSERT INTO users (user_name, password, enabled, " +
+                    "hide_birthday_date, gender) VALUES (?, 'password', true, false, 0) RETURNING id",
+                    Long.class, "events_test_user_" + j);
+        }
+        Long userId = userIds[0];
+        organizerId = userId;
+        Long sportTypeId = jdbcTemplate.queryForObject(
+                "INSERT INTO sport_types (title) VALUES ('events_test_sport') RETURNING id", Long.class);
+        Long sportGroundId = jdbcTemplate.queryForObject("INSERT INTO sportgrounds (city, address, location, title) " +
+                "VALUES ('Москва', 'events_test_address', point(55.75, 37.61), 'events_test_ground') RETURNING id",
+                Long.class);
+        for (int i = 0; i < EVENTS; i++) {
+            eventId = jdbcTemplate.queryForObject("INSERT INTO events (date, start_time, organizer_user_id, " +
+                    "sportground_id, sport_type_id) VALUES (current_date + ?, '10:00', ?, ?, ?) RETURNING id",
+                    Long.class, i, userId, sportGroundId, sportTypeId);
+            for (int j = 0; j < MEMBERS; j++) {
+                jdbcTemplate.update("INSERT INTO event_member (status, event_id, user_id) VALUES (?, ?, ?)",
+                        "status_" + j, eventId, userIds[j]);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void getAllDtoUsesBoundedNumberOfQueries() {
+        KeysetPage<EventDto> page = eventService.getAllDto(null, 100);
+
+        assertTrue(page.getContent().size() >= EVENTS);
+        // Мероприятия с видом спорта и площадкой, затем участники одним пакетом
+        assertTrue(statistics.getPrepareStatementCount() <= 2);
+    }
+
+    @Test
+    public void getDtoByIdUsesSingleQuery() {
+        EventDto event = eventService.getDtoById(eventId);
+
+        assertEquals(MEMBERS, event.getMembers().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void deleteByIdDeletesEventWithMembers() {
+        eventService.deleteById(eventId, getOrganizerAuthentication());
+        entityManager.flush();
+
+        assertFalse(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM events WHERE id = ?)",
+                Boolean.class, eventId));
+        assertEquals(0, (int) jdbcTemplate.queryForObject("SELECT count(*) FROM event_member WHERE event_id = ?",
+                Integer.class, eventId));
+    }
+
+    @Test
+    public void raisingMaxMembersPromotesWaitingMembersInOrder() {
+        // Мероприятие заполнено: три принятых участника и два в очереди ожидания
+        jdbcTemplate.update("UPDATE events SET max_members = 3, members_count = 3, waitlist_counter = 2 WHERE id = ?",
+                eventId);
+        for (int j = 3; j < MEMBERS; j++) {
+            jdbcTemplate.update("UPDATE event_member SET member_status = 'WAITING', queue_number = ? " +
+                    "WHERE event_id = ? AND user_id = ?", j - 2, eventId, userIds[j]);
+        }
+        EventDto event = eventService.getDtoById(eventId);
+        event.setMaxMembers(4);
+
+        EventDto updated = eventService.update(event, eventId, getOrganizerAuthentication());
+
+        assertEquals(4, (int) updated.getMaxMembers());
+        assertEquals("ACCEPTED", getMemberStatus(userIds[3]));
+        assertEquals("WAITING", getMemberStatus(userIds[4]));
+        assertEquals(4, (int) jdbcTemplate.queryForObject("SELECT members_count FROM events WHERE id = ?",
+                Integer.class, eventId));
+    }
+
+    @Test
+    public void removingMaxMembersPromotesAllWaitingMembers() {
+        jdbcTemplate.update("UPDATE events SET max_members = 3, members_count = 3, waitlist_counter = 2 WHERE id = ?",
+                eventId);
+        for (int j = 3; j < MEMBERS; j++) {
+            jdbcTemplate.update("UPDATE event_member SET member_status = 'WAITING', queue_number = ? " +
+                    "WHERE event_id = ? AND user_id = ?", j - 2, eventId, userIds[j]);
+        }
+        EventDto event = eventService.getDtoById(eventId);
+        event.setMaxMembers(null);
+
+        EventDto updated = eventService.update(event, eventId, getOrganizerAuthentication());
+
+        assertNull(updated.getMaxMembers());
+        assertEquals("ACCEPTED", getMemberStatus(userIds[3]));
+        assertEquals("ACCEPTED", getMemberStatus(userIds[4]));
+        assertEquals(MEMBERS, (int) jdbcTemplate.queryForObject("SELECT members_count FROM events WHERE id = ?",
+                Integer.class, eventId));
+    }
+
+    private Authentication getOrganizerAuthentication() {
+        JwtUser organizer = new JwtUser();
+        organizer.setId(organizerId);
+        organizer.setAuthorities(Collections.emptyList());
+        return new UsernamePasswordAuthenticationToken(organizer, null, organizer.getAuthorities());
+    }
+
+    private String getMemberStatus(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT member_status FROM event_member WHERE event_id = ? AND user_id = ?",
+                String.class, eventId, userId);
+    }
+}
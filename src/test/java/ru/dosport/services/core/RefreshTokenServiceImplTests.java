@@ -0,0 +1,120 @@
+package ru.dosport.services.core;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.context.junit4.SpringRunner;
+import ru.dosport.dto.TokenResponse;
+import ru.dosport.security.JwtUser;
+import ru.dosport.services.api.RefreshTokenService;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Проверка обновления токенов: замена секрета, завершение сеанса при повторном предъявлении замененного токена,
+ * истечение срока и блокировка пользователя.
+ * Сервис завершает сеанс и отклоняет запрос в одной транзакции, поэтому тест не транзакционный
+ * и проверяет сохраненное состояние, а свои данные удаляет после выполнения.
+ */
+@RunWith(SpringRunner.class)
+@AutoConfigureEmbeddedDatabase
+@SpringBootTest
+public class RefreshTokenServiceImplTests {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    private String token;
+
+    @Before
+    public void setUp() {
+        userId = jdbcTemplate.queryForObject("INSERT INTO users (user_name, password, enabled, " +
+                "hide_birthday_date, gender) VALUES ('refresh_test_user', 'password', true, false, 0) RETURNING id",
+                Long.class);
+        JwtUser user = new JwtUser();
+        user.setId(userId);
+        user.setUsername("refresh_test_user");
+        user.setEnabled(true);
+        user.setAuthorities(Collections.emptyList());
+        token = refreshTokenService.issue(user).getRefreshToken();
+    }
+
+    @After
+    public void tearDown() {
+        // Токены удаляются каскадно вместе с пользователем
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    @Test
+    public void rotatedTokenIsAcceptedOnceAndItsReplayEndsSession() {
+        TokenResponse response = refreshTokenService.refresh(token);
+        String newToken = response.getRefreshToken();
+        assertNotNull(response.getToken());
+        assertNotEquals(token, newToken);
+        assertEquals(1, countSessions());
+
+        assertRejected(token);
+        assertEquals(0, countSessions());
+        // Токен, выданный вместо повторно предъявленного, завершен вместе с сеансом
+        assertRejected(newToken);
+    }
+
+    @Test
+    public void wrongSecretDoesNotEndSession() {
+        String handle = token.substring(0, token.indexOf('.'));
+
+        assertRejected(handle + ".AAAA");
+        assertRejected(handle + ".");
+        assertRejected("not-a-token");
+
+        assertEquals(1, countSessions());
+        assertNotNull(refreshTokenService.refresh(token));
+    }
+
+    @Test
+    public void expiredTokenIsRejected() {
+        jdbcTemplate.update("UPDATE refresh_tokens SET expires_at = now() - interval '1 minute' WHERE user_id = ?",
+                userId);
+
+        assertRejected(token);
+        assertEquals(0, countSessions());
+    }
+
+    @Test
+    public void disabledUserIsRejected() {
+        jdbcTemplate.update("UPDATE users SET enabled = false WHERE id = ?", userId);
+
+        assertRejected(token);
+        assertEquals(0, countSessions());
+    }
+
+    private void assertRejected(String refreshToken) {
+        try {
+            refreshTokenService.refresh(refreshToken);
+            fail();
+        } catch (BadCredentialsException e) {
+            // Токен недействителен
+        }
+    }
+
+    private int countSessions() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM refresh_tokens WHERE user_id = ?",
+                Integer.class, userId);
+    }
+}
@@ -0,0 +1,75 @@
+package ru.dosport.services.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.dosport.dto.SportGroundImportReport;
+import ru.dosport.services.api.SportGroundService;
+import ru.dosport.services.api.SportTypeService;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверка импорта площадок при ошибке сохранения пакета.
+ */
+public class SportGroundImportServiceImplTests {
+
+    private static final String CSV = "city,address,title,latitude,longitude\n" +
+            "Москва,адрес 1,площадка 1,55.7,37.6\n" +
+            "Москва,адрес 2,площадка 2,55.7,37.6\n" +
+            "Москва,адрес 3,площадка 3,55.7,37.6\n";
+
+    private final SportGroundService sportGroundService = mock(SportGroundService.class);
+
+    private final SportGroundImportServiceImpl importService = new SportGroundImportServiceImpl(sportGroundService,
+            mock(SportTypeService.class), new ObjectMapper(), mock(EntityManager.class));
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+    }
+
+    @Test
+    public void retriesBatchOnceAfterConcurrentInsert() {
+        when(sportGroundService.createAllSkippingExisting(anyList()))
+                .thenThrow(new DataIntegrityViolationException("адрес занят"))
+                .thenReturn(1, 1);
+
+        SportGroundImportReport report = importService.importCsv(toStream(CSV));
+
+        assertEquals(2, report.getCreated());
+        assertEquals(1, report.getDuplicates());
+        assertEquals(0, report.getSkipped());
+        verify(sportGroundService, times(3)).createAllSkippingExisting(anyList());
+    }
+
+    @Test
+    public void skipsBatchThatFailsAgainAndContinues() {
+        when(sportGroundService.createAllSkippingExisting(anyList()))
+                .thenThrow(new DataIntegrityViolationException("адрес занят"))
+                .thenThrow(new DataIntegrityViolationException("адрес занят"))
+                .thenReturn(1);
+
+        SportGroundImportReport report = importService.importCsv(toStream(CSV));
+
+        assertEquals(1, report.getCreated());
+        assertEquals(2, report.getSkipped());
+        assertEquals(2, report.getBatches());
+        assertEquals(1, report.getErrors().size());
+    }
+
+    private static ByteArrayInputStream toStream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,169 @@
+package ru.dosport.services.core;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.junit4.SpringRunner;
+import ru.dosport.dto.UserSportTypeDto;
+import ru.dosport.exceptions.DataBadRequestException;
+import ru.dosport.exceptions.DataNotFoundException;
+import ru.dosport.security.JwtUser;
+import ru.dosport.services.api.SportTypeService;
+import ru.dosport.services.api.UserSportTypeService;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Проверка замены списка навыков пользователя: удаление отсутствующих в списке, изменение существующих
+ * и добавление новых навыков одной транзакцией.
+ * Ошибка должна откатывать уже выполненные изменения, поэтому тест не транзакционный
+ * и проверяет сохраненное состояние, а свои данные удаляет после выполнения.
+ */
+@RunWith(SpringRunner.class)
+@AutoConfigureEmbeddedDatabase
+@SpringBootTest
+public class UserSportTypeServiceImplTests {
+
+    @Autowired
+    private UserSportTypeService userSportTypeService;
+
+    @Autowired
+    private SportTypeService sportTypeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    private Short football;
+
+    private Short hockey;
+
+    private Short tennis;
+
+    @Before
+    public void setUp() {
+        userId = jdbcTemplate.queryForObject("INSERT INTO users (user_name, password, enabled, " +
+                "hide_birthday_date, gender) VALUES ('skills_test_user', 'password', true, false, 0) RETURNING id",
+                Long.class);
+        // Виды спорта создаются через сервис, чтобы они попали в справочник в памяти
+        football = sportTypeService.save("skills_test_football").getSportTypeId();
+        hockey = sportTypeService.save("skills_test_hockey").getSportTypeId();
+        tennis = sportTypeService.save("skills_test_tennis").getSportTypeId();
+        jdbcTemplate.update("INSERT INTO user_sports (user_id, sport_type_id, level) VALUES (?, ?, 1), (?, ?, 2)",
+                userId, football, userId, hockey);
+    }
+
+    @After
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_sports WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        sportTypeService.deleteById(football);
+        sportTypeService.deleteById(hockey);
+        sportTypeService.deleteById(tennis);
+    }
+
+    @Test
+    public void replacesSkillsWithGivenList() {
+        List<UserSportTypeDto> result = userSportTypeService.updateByUserId(
+                Arrays.asList(skill(tennis, 3), skill(hockey, 4)), getAuthentication());
+
+        assertEquals(2, result.size());
+        assertEquals(hockey, result.get(0).getSportTypeId());
+        assertEquals(4, result.get(0).getLevel());
+        assertEquals(tennis, result.get(1).getSportTypeId());
+        assertEquals(3, result.get(1).getLevel());
+
+        Map<Short, Short> expected = new LinkedHashMap<>();
+        expected.put(hockey, (short) 4);
+        expected.put(tennis, (short) 3);
+        assertEquals(expected, getSkills());
+    }
+
+    @Test
+    public void emptyListDeletesAllSkills() {
+        List<UserSportTypeDto> result = userSportTypeService.updateByUserId(Collections.emptyList(),
+                getAuthentication());
+
+        assertEquals(0, result.size());
+        assertEquals(Collections.emptyMap(), getSkills());
+    }
+
+    @Test
+    public void invalidListWritesNothing() {
+        Map<Short, Short> before = getSkills();
+
+        assertRejected(Arrays.asList(skill(tennis, 3), skill(hockey, 6)), DataBadRequestException.class);
+        assertRejected(Arrays.asList(skill(tennis, 3), skill(tennis, 4)), DataBadRequestException.class);
+        assertRejected(Arrays.asList(skill(tennis, 3), skill(null, 4)), DataBadRequestException.class);
+        assertRejected(Arrays.asList(skill(tennis, 3), skill(Short.MAX_VALUE, 4)), DataNotFoundException.class);
+
+        assertEquals(before, getSkills());
+    }
+
+    @Test
+    public void databaseErrorRollsBackDeletedAndUpdatedSkills() {
+        Map<Short, Short> before = getSkills();
+        // Вид спорта удаляется мимо загруженного справочника в памяти: проверка списка проходит,
+        // а добавление навыка нарушает внешний ключ уже после удаления и изменения остальных навыков
+        sportTypeService.getSportTypeDtoById(tennis);
+        String title = jdbcTemplate.queryForObject("SELECT title FROM sport_types WHERE id = ?", String.class, tennis);
+        jdbcTemplate.update("DELETE FROM sport_types WHERE id = ?", tennis);
+        try {
+            assertRejected(Arrays.asList(skill(hockey, 4), skill(tennis, 3)), DataAccessException.class);
+        } finally {
+            jdbcTemplate.update("INSERT INTO sport_types (id, title) VALUES (?, ?)", tennis, title);
+        }
+
+        assertEquals(before, getSkills());
+    }
+
+    private void assertRejected(List<UserSportTypeDto> dtoList, Class<? extends RuntimeException> exceptionClass) {
+        try {
+            userSportTypeService.updateByUserId(dtoList, getAuthentication());
+            fail();
+        } catch (RuntimeException e) {
+            if (!exceptionClass.isInstance(e)) {
+                throw e;
+            }
+        }
+    }
+
+    private Map<Short, Short> getSkills() {
+        Map<Short, Short> skills = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT sport_type_id, level FROM user_sports WHERE user_id = ? ORDER BY sport_type_id",
+                rs -> {
+                    skills.put(rs.getShort("sport_type_id"), rs.getShort("level"));
+                }, userId);
+        return skills;
+    }
+
+    private UserSportTypeDto skill(Short sportTypeId, int level) {
+        UserSportTypeDto dto = new UserSportTypeDto();
+        dto.setSportTypeId(sportTypeId);
+        dto.setLevel((short) level);
+        return dto;
+    }
+
+    private Authentication getAuthentication() {
+        JwtUser user = new JwtUser();
+        user.setId(userId);
+        user.setAuthorities(Collections.emptyList());
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+}